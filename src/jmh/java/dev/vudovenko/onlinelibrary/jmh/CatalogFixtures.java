@@ -0,0 +1,49 @@
+package dev.vudovenko.onlinelibrary.jmh;
+
+import dev.vudovenko.onlinelibrary.author.AuthorEntity;
+import dev.vudovenko.onlinelibrary.book.BookEntity;
+
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+final class CatalogFixtures {
+
+    private CatalogFixtures() {
+    }
+
+    static List<BookEntity> books(long authorId, int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> new BookEntity(
+                        authorId * 100_000 + i,
+                        "Some fairly usual title " + i,
+                        authorId,
+                        1950 + i % 70,
+                        100 + i % 900,
+                        500 + i % 5_000,
+                        0L,
+                        Instant.EPOCH
+                ))
+                .toList();
+    }
+
+    /**
+     * About {@code bookCount} books spread over at most ten authors, at least one book each.
+     */
+    static List<AuthorEntity> authorsWithBooks(int bookCount) {
+        int authorCount = Math.min(10, bookCount);
+        return authors(authorCount, (bookCount + authorCount - 1) / authorCount);
+    }
+
+    static List<AuthorEntity> authors(int count, int booksPerAuthor) {
+        return LongStream.range(1, count + 1)
+                .mapToObj(id -> {
+                    Set<BookEntity> books = new HashSet<>(books(id, booksPerAuthor));
+                    return new AuthorEntity(id, "Author name " + id, 1900, 0L, books);
+                })
+                .toList();
+    }
+}
@@ -0,0 +1,59 @@
+package dev.vudovenko.onlinelibrary.jmh;
+
+import dev.vudovenko.onlinelibrary.author.AuthorDto;
+import dev.vudovenko.onlinelibrary.author.AuthorDtoConverter;
+import dev.vudovenko.onlinelibrary.author.AuthorEntity;
+import dev.vudovenko.onlinelibrary.author.AuthorEntityConverter;
+import dev.vudovenko.onlinelibrary.book.BookDto;
+import dev.vudovenko.onlinelibrary.book.BookDtoConverter;
+import dev.vudovenko.onlinelibrary.book.BookEntity;
+import dev.vudovenko.onlinelibrary.book.BookEntityConverter;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity -> domain -> DTO conversion of a response, the way the controllers do it.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ConverterBenchmark {
+
+    @Param({"3", "100", "1000"})
+    private int size;
+
+    private final BookEntityConverter bookEntityConverter = new BookEntityConverter();
+    private final BookDtoConverter bookDtoConverter = new BookDtoConverter();
+    private final AuthorEntityConverter authorEntityConverter = new AuthorEntityConverter(bookEntityConverter);
+    private final AuthorDtoConverter authorDtoConverter = new AuthorDtoConverter(bookDtoConverter);
+
+    private List<BookEntity> bookEntities;
+    private List<AuthorEntity> authorEntities;
+
+    @Setup
+    public void setUp() {
+        bookEntities = CatalogFixtures.books(1, size);
+        authorEntities = CatalogFixtures.authorsWithBooks(size);
+    }
+
+    @Benchmark
+    public List<BookDto> booksPage() {
+        return bookEntities.stream()
+                .map(bookEntityConverter::toDomain)
+                .map(bookDtoConverter::toDto)
+                .toList();
+    }
+
+    @Benchmark
+    public List<AuthorDto> authorsPage() {
+        return authorEntities.stream()
+                .map(authorEntityConverter::toDomain)
+                .map(authorDtoConverter::toDto)
+                .toList();
+    }
+}
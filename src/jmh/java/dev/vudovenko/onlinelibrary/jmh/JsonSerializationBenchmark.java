@@ -0,0 +1,64 @@
+package dev.vudovenko.onlinelibrary.jmh;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.vudovenko.onlinelibrary.author.AuthorDto;
+import dev.vudovenko.onlinelibrary.author.AuthorDtoConverter;
+import dev.vudovenko.onlinelibrary.author.AuthorEntityConverter;
+import dev.vudovenko.onlinelibrary.book.BookDto;
+import dev.vudovenko.onlinelibrary.book.BookDtoConverter;
+import dev.vudovenko.onlinelibrary.book.BookEntityConverter;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of response bodies with the same mapper defaults Spring uses.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonSerializationBenchmark {
+
+    @Param({"3", "100", "1000"})
+    private int size;
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    private List<BookDto> books;
+    private List<AuthorDto> authors;
+
+    @Setup
+    public void setUp() {
+        BookEntityConverter bookEntityConverter = new BookEntityConverter();
+        BookDtoConverter bookDtoConverter = new BookDtoConverter();
+        AuthorEntityConverter authorEntityConverter = new AuthorEntityConverter(bookEntityConverter);
+        AuthorDtoConverter authorDtoConverter = new AuthorDtoConverter(bookDtoConverter);
+
+        books = CatalogFixtures.books(1, size)
+                .stream()
+                .map(bookEntityConverter::toDomain)
+                .map(bookDtoConverter::toDto)
+                .toList();
+        authors = CatalogFixtures.authorsWithBooks(size)
+                .stream()
+                .map(authorEntityConverter::toDomain)
+                .map(authorDtoConverter::toDto)
+                .toList();
+    }
+
+    @Benchmark
+    public byte[] booksPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(books);
+    }
+
+    @Benchmark
+    public byte[] authorsPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(authors);
+    }
+}
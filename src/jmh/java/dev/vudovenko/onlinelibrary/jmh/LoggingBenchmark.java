@@ -0,0 +1,89 @@
+package dev.vudovenko.onlinelibrary.jmh;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.OutputStreamAppender;
+import dev.vudovenko.onlinelibrary.book.BookDto;
+import dev.vudovenko.onlinelibrary.logging.SamplingTurboFilter;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of a controller request log line for the caller thread: synchronous appender
+ * (the default setup), async appender, and async appender with 1% sampling (the prod profile).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class LoggingBenchmark {
+
+    @Param({"sync", "async", "async-sampled"})
+    private String mode;
+
+    private final BookDto bookDto = new BookDto(null, "Some fairly usual title", 1L, 2000, 100, 500);
+
+    private LoggerContext loggerContext;
+    private Logger logger;
+
+    @Setup
+    public void setUp() {
+        loggerContext = new LoggerContext();
+
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(loggerContext);
+        encoder.setPattern("%d{yyyy-MM-dd'T'HH:mm:ss.SSSXXX} %5p --- [%t] %-40.40logger{39} : %m%n");
+        encoder.start();
+
+        OutputStreamAppender<ILoggingEvent> outputAppender = new OutputStreamAppender<>();
+        outputAppender.setContext(loggerContext);
+        outputAppender.setEncoder(encoder);
+        outputAppender.setOutputStream(OutputStream.nullOutputStream());
+        outputAppender.start();
+
+        Appender<ILoggingEvent> appender = outputAppender;
+        if (mode.startsWith("async")) {
+            AsyncAppender asyncAppender = new AsyncAppender();
+            asyncAppender.setContext(loggerContext);
+            asyncAppender.setQueueSize(8192);
+            asyncAppender.setNeverBlock(true);
+            asyncAppender.addAppender(outputAppender);
+            asyncAppender.start();
+            appender = asyncAppender;
+        }
+        if (mode.equals("async-sampled")) {
+            SamplingTurboFilter samplingFilter = new SamplingTurboFilter();
+            samplingFilter.setContext(loggerContext);
+            samplingFilter.setLoggerPrefix("dev.vudovenko.onlinelibrary");
+            samplingFilter.setLoggerSuffix("Controller");
+            samplingFilter.setSampleRate(100);
+            samplingFilter.start();
+            loggerContext.addTurboFilter(samplingFilter);
+        }
+
+        Logger root = loggerContext.getLogger(Logger.ROOT_LOGGER_NAME);
+        root.setLevel(Level.INFO);
+        root.addAppender(appender);
+        logger = loggerContext.getLogger("dev.vudovenko.onlinelibrary.book.BookController");
+    }
+
+    @TearDown
+    public void tearDown() {
+        loggerContext.stop();
+    }
+
+    @Benchmark
+    public void requestLog() {
+        logger.info("Get request for createBook: book={}", bookDto);
+    }
+}
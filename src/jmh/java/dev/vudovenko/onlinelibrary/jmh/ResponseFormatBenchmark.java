@@ -0,0 +1,108 @@
+package dev.vudovenko.onlinelibrary.jmh;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.vudovenko.onlinelibrary.author.AuthorDto;
+import dev.vudovenko.onlinelibrary.author.AuthorDtoConverter;
+import dev.vudovenko.onlinelibrary.author.AuthorEntityConverter;
+import dev.vudovenko.onlinelibrary.book.BookDto;
+import dev.vudovenko.onlinelibrary.book.BookDtoConverter;
+import dev.vudovenko.onlinelibrary.book.BookEntityConverter;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Encode time of large pages per response format. The payload sizes, raw and gzipped,
+ * are printed once per trial, so both can be compared against JSON in one run:
+ * {@code mvn -Pjmh test-compile exec:exec -Djmh.args="ResponseFormatBenchmark"}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ResponseFormatBenchmark {
+
+    @Param({"json", "smile", "cbor"})
+    private String format;
+
+    @Param({"100", "1000"})
+    private int size;
+
+    private ObjectMapper objectMapper;
+    private List<BookDto> books;
+    private List<AuthorDto> authors;
+
+    @Setup
+    public void setUp() throws IOException {
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .factory(factory(format))
+                .build();
+
+        BookEntityConverter bookEntityConverter = new BookEntityConverter();
+        BookDtoConverter bookDtoConverter = new BookDtoConverter();
+        AuthorEntityConverter authorEntityConverter = new AuthorEntityConverter(bookEntityConverter);
+        AuthorDtoConverter authorDtoConverter = new AuthorDtoConverter(bookDtoConverter);
+
+        books = CatalogFixtures.books(1, size)
+                .stream()
+                .map(bookEntityConverter::toDomain)
+                .map(bookDtoConverter::toDto)
+                .toList();
+        authors = CatalogFixtures.authorsWithBooks(size)
+                .stream()
+                .map(authorEntityConverter::toDomain)
+                .map(authorDtoConverter::toDto)
+                .toList();
+
+        printSize("books", booksPage());
+        printSize("authors", authorsPage());
+    }
+
+    @Benchmark
+    public byte[] booksPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(books);
+    }
+
+    @Benchmark
+    public byte[] authorsPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(authors);
+    }
+
+    private void printSize(String page, byte[] payload) {
+        System.out.printf(
+                "%n%s page of %d, %s: %d bytes, %d bytes gzipped%n",
+                page, size, format, payload.length, gzip(payload).length
+        );
+    }
+
+    private static JsonFactory factory(String format) {
+        return switch (format) {
+            case "json" -> new JsonFactory();
+            case "smile" -> new SmileFactory();
+            case "cbor" -> new CBORFactory();
+            default -> throw new IllegalArgumentException(format);
+        };
+    }
+
+    private static byte[] gzip(byte[] payload) {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(payload);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return compressed.toByteArray();
+    }
+}
@@ -1,9 +1,11 @@
 package dev.vudovenko.onlinelibrary.author;
 
+import dev.vudovenko.onlinelibrary.book.VersionFingerprint;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -34,12 +36,27 @@ public class AuthorController {
     }
 
     @GetMapping
-    public List<AuthorDto> getAllAuthors() {
+    public ResponseEntity<List<AuthorDto>> getAllAuthors(
+            @Valid AuthorSearchFilter authorSearchFilter
+    ) {
         LOGGER.info("Get request for get all authors");
-        return authorService.getAllAuthors()
-                .stream()
-                .map(authorDtoConverter::toDto)
-                .toList();
+        AuthorPage page = authorService.getAllAuthors(authorSearchFilter);
+
+        // a matching If-None-Match turns this into a 304 before the body is serialized
+        return ResponseEntity.ok()
+                .eTag(VersionFingerprint.weakETag(page.fingerprint()))
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(page.authors()
+                        .stream()
+                        .map(authorDtoConverter::toDto)
+                        .toList());
+    }
+
+    @GetMapping("/suggest")
+    public List<AuthorSuggestion> suggestAuthors(
+            @Valid AuthorSuggestFilter authorSuggestFilter
+    ) {
+        return authorService.suggestAuthors(authorSuggestFilter);
     }
 
     @DeleteMapping("/{id}")
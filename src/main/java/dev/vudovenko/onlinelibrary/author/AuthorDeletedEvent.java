@@ -0,0 +1,11 @@
+package dev.vudovenko.onlinelibrary.author;
+
+/**
+ * Published by {@link AuthorService#deleteAuthor(Long)}; listeners that need
+ * the committed state should use {@code @TransactionalEventListener}.
+ */
+public record AuthorDeletedEvent(
+
+        Long authorId
+) {
+}
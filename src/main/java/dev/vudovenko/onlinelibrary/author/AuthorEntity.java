@@ -6,6 +6,8 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.Set;
 
@@ -14,16 +16,15 @@ import java.util.Set;
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
-@NamedEntityGraph(
-        name = "author-with-books",
-        attributeNodes = {
-                @NamedAttributeNode("books")
-        }
-)
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = AuthorEntity.CACHE_REGION)
 @Table(name = "authors")
 public class AuthorEntity {
 
+    public static final String CACHE_REGION = "authors";
+    public static final String BOOKS_CACHE_REGION = "authors.books";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -33,7 +34,11 @@ public class AuthorEntity {
 
     private Integer birthYear;
 
+    @Version
+    private Long version;
+
     @OneToMany
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = AuthorEntity.BOOKS_CACHE_REGION)
     @JoinColumn(name = "author_id", referencedColumnName = "id")
     private Set<BookEntity> books;
 }
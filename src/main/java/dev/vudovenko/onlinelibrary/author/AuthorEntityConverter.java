@@ -1,8 +1,10 @@
 package dev.vudovenko.onlinelibrary.author;
 
+import dev.vudovenko.onlinelibrary.book.BookEntity;
 import dev.vudovenko.onlinelibrary.book.BookEntityConverter;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
 import java.util.stream.Collectors;
 
 @Component
@@ -24,11 +26,23 @@ public class AuthorEntityConverter {
         );
     }
 
+    public Author toDomain(AuthorEntity authorEntity, List<BookEntity> bookEntities) {
+        return new Author(
+                authorEntity.getId(),
+                authorEntity.getName(),
+                authorEntity.getBirthYear(),
+                bookEntities.stream()
+                        .map(bookEntityConverter::toDomain)
+                        .toList()
+        );
+    }
+
     public AuthorEntity toEntity(Author author) {
         return new AuthorEntity(
                 author.id(),
                 author.name(),
                 author.birthYear(),
+                null,
                 author.books().stream()
                         .map(bookEntityConverter::toEntity)
                         .collect(Collectors.toSet())
@@ -0,0 +1,99 @@
+package dev.vudovenko.onlinelibrary.author;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory set of existing author ids backed by a bitset.
+ * <p>
+ * Ids are never reused, so removals that happen while the initial load is
+ * running are remembered and applied on top of the loaded snapshot. Until
+ * {@link #initialize(Collection)} has run, or if an id does not fit into the
+ * bitset, {@link #isInitialized()} is {@code false} and callers have to ask
+ * the database instead.
+ */
+@Component
+public class AuthorIdIndex {
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final BitSet ids = new BitSet();
+    private final BitSet removedBeforeInitialization = new BitSet();
+    private volatile boolean initialized;
+    private volatile boolean overflowed;
+
+    public boolean isInitialized() {
+        return initialized && !overflowed;
+    }
+
+    public boolean contains(long id) {
+        if (!fits(id)) {
+            return false;
+        }
+        lock.readLock().lock();
+        try {
+            return ids.get((int) id);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void add(long id) {
+        if (!fits(id)) {
+            overflowed = true;
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            ids.set((int) id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long id) {
+        if (!fits(id)) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            ids.clear((int) id);
+            if (!initialized) {
+                removedBeforeInitialization.set((int) id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void initialize(Collection<Long> existingIds) {
+        lock.writeLock().lock();
+        try {
+            for (Long id : existingIds) {
+                if (!fits(id)) {
+                    overflowed = true;
+                    continue;
+                }
+                ids.set(id.intValue());
+            }
+            ids.andNot(removedBeforeInitialization);
+            removedBeforeInitialization.clear();
+            initialized = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAuthorDeleted(AuthorDeletedEvent event) {
+        remove(event.authorId());
+    }
+
+    private static boolean fits(long id) {
+        return id >= 0 && id < Integer.MAX_VALUE;
+    }
+}
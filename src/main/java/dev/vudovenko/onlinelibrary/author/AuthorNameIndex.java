@@ -0,0 +1,161 @@
+package dev.vudovenko.onlinelibrary.author;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory prefix index over author names for type-ahead suggestions.
+ * <p>
+ * Names are kept in an array sorted by their lower-cased form, so the matches
+ * of a prefix are a contiguous run found with one binary search. Writers copy
+ * the array under a lock and publish the new one through a volatile field;
+ * readers never lock and always see a complete snapshot.
+ * <p>
+ * Like {@link AuthorIdIndex}, removals that happen while the initial load is
+ * running are remembered and applied on top of the loaded snapshot, and
+ * {@link #isInitialized()} is {@code false} until then.
+ */
+@Component
+public class AuthorNameIndex {
+
+    private static final Comparator<Entry> ORDER = Comparator
+            .comparing(Entry::key)
+            .thenComparing(entry -> entry.suggestion().id());
+
+    private final Lock writeLock = new ReentrantLock();
+    private final Map<Long, Entry> entriesById = new HashMap<>();
+    private final Set<Long> removedBeforeInitialization = new HashSet<>();
+    private volatile Entry[] entries = new Entry[0];
+    private volatile boolean initialized;
+
+    public boolean isInitialized() {
+        return initialized;
+    }
+
+    /**
+     * @return up to {@code limit} authors whose name starts with {@code prefix},
+     * ignoring case, in name order
+     */
+    public List<AuthorSuggestion> suggest(String prefix, int limit) {
+        String keyPrefix = toKey(prefix);
+        Entry[] snapshot = entries;
+
+        List<AuthorSuggestion> suggestions = new ArrayList<>(Math.min(limit, snapshot.length));
+        for (int i = lowerBound(snapshot, keyPrefix);
+             i < snapshot.length && suggestions.size() < limit && snapshot[i].key().startsWith(keyPrefix);
+             i++) {
+            suggestions.add(snapshot[i].suggestion());
+        }
+        return suggestions;
+    }
+
+    public void add(Long id, String name) {
+        writeLock.lock();
+        try {
+            if (removedBeforeInitialization.contains(id)) {
+                return;
+            }
+            Entry entry = new Entry(toKey(name), new AuthorSuggestion(id, name));
+            Entry previous = entriesById.put(id, entry);
+            Entry[] snapshot = previous != null
+                    ? without(entries, previous)
+                    : entries;
+
+            int insertionPoint = -Arrays.binarySearch(snapshot, entry, ORDER) - 1;
+            Entry[] updated = new Entry[snapshot.length + 1];
+            System.arraycopy(snapshot, 0, updated, 0, insertionPoint);
+            updated[insertionPoint] = entry;
+            System.arraycopy(snapshot, insertionPoint, updated, insertionPoint + 1, snapshot.length - insertionPoint);
+            entries = updated;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public void remove(Long id) {
+        writeLock.lock();
+        try {
+            if (!initialized) {
+                removedBeforeInitialization.add(id);
+            }
+            Entry entry = entriesById.remove(id);
+            if (entry != null) {
+                entries = without(entries, entry);
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public void initialize(Collection<AuthorSuggestion> authors) {
+        writeLock.lock();
+        try {
+            for (AuthorSuggestion author : authors) {
+                if (!removedBeforeInitialization.contains(author.id())) {
+                    entriesById.putIfAbsent(author.id(), new Entry(toKey(author.name()), author));
+                }
+            }
+            Entry[] loaded = entriesById.values().toArray(new Entry[0]);
+            Arrays.sort(loaded, ORDER);
+            entries = loaded;
+            removedBeforeInitialization.clear();
+            initialized = true;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAuthorDeleted(AuthorDeletedEvent event) {
+        remove(event.authorId());
+    }
+
+    static String toKey(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+
+    private static int lowerBound(Entry[] snapshot, String keyPrefix) {
+        int low = 0;
+        int high = snapshot.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (snapshot[middle].key().compareTo(keyPrefix) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private static Entry[] without(Entry[] snapshot, Entry entry) {
+        int index = Arrays.binarySearch(snapshot, entry, ORDER);
+        if (index < 0) {
+            return snapshot;
+        }
+        Entry[] updated = new Entry[snapshot.length - 1];
+        System.arraycopy(snapshot, 0, updated, 0, index);
+        System.arraycopy(snapshot, index + 1, updated, index, snapshot.length - index - 1);
+        return updated;
+    }
+
+    private record Entry(
+
+            String key,
+            AuthorSuggestion suggestion
+    ) {
+    }
+}
@@ -0,0 +1,10 @@
+package dev.vudovenko.onlinelibrary.author;
+
+import java.util.List;
+
+public record AuthorPage(
+
+        List<Author> authors,
+        String fingerprint
+) {
+}
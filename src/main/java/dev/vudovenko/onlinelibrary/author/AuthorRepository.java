@@ -1,42 +1,70 @@
 package dev.vudovenko.onlinelibrary.author;
 
-import org.springframework.data.jpa.repository.EntityGraph;
+import dev.vudovenko.onlinelibrary.book.BookEntity;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
 
-public interface AuthorRepository extends JpaRepository<AuthorEntity, Long> {
+public interface AuthorRepository extends JpaRepository<AuthorEntity, Long>, AuthorSuggestionRepository {
 
     Boolean existsByName(String name);
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("SELECT CASE WHEN COUNT(a) > 0 THEN true ELSE false END FROM AuthorEntity a WHERE a.id = :id")
+    boolean existsById(@Param("id") Long id);
+
+    @Query("SELECT a.id FROM AuthorEntity a")
+    List<Long> findAllIds();
+
+    @Query(
+            """
+                    SELECT new dev.vudovenko.onlinelibrary.author.AuthorSuggestion(a.id, a.name)
+                    FROM AuthorEntity a
+                    """
+    )
+    List<AuthorSuggestion> findAllSuggestions();
+
+    @Query("SELECT a.id FROM AuthorEntity a WHERE a.id IN :ids")
+    Set<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
     @Transactional
     @Modifying
     @Query(
             """
                     UPDATE BookEntity b
-                    SET b.authorId = NULL
+                    SET b.authorId = NULL,
+                        b.version = b.version + 1,
+                        b.updatedAt = instant
                     WHERE b.authorId = :authorId
                     """
     )
     void deleteAuthorFromBooks(Long authorId);
 
-//    @Query(
-//            """
-//                    SELECT a
-//                    FROM AuthorEntity a
-//                    JOIN FETCH a.books
-//                    """
-//    )
-//    List<AuthorEntity> findAllWithBooks();
-
-//    @Query("SELECT a FROM AuthorEntity a")
-//    @EntityGraph(attributePaths = "books")
-//    List<AuthorEntity> findAllWithBooks();
-
-    @Query("SELECT a FROM AuthorEntity a")
-    @EntityGraph(value = "author-with-books")
-    List<AuthorEntity> findAllWithBooks();
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM AuthorEntity a WHERE a.id = :authorId")
+    int deleteAuthorById(@Param("authorId") Long authorId);
+
+    @Query("SELECT a FROM AuthorEntity a ORDER BY a.id")
+    List<AuthorEntity> findAuthorsPage(Pageable pageable);
+
+    @Query(
+            """
+                    SELECT b
+                    FROM BookEntity b
+                    WHERE b.authorId IN :authorIds
+                    ORDER BY b.id
+                    """
+    )
+    List<BookEntity> findBooksByAuthorIds(@Param("authorIds") Collection<Long> authorIds);
 }
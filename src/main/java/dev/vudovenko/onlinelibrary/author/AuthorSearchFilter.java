@@ -0,0 +1,14 @@
+package dev.vudovenko.onlinelibrary.author;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+
+public record AuthorSearchFilter(
+
+        @Min(0)
+        Integer pageNumber,
+        @Min(1)
+        @Max(100)
+        Integer pageSize
+) {
+}
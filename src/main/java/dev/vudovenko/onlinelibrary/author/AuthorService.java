@@ -1,11 +1,21 @@
 package dev.vudovenko.onlinelibrary.author;
 
+import dev.vudovenko.onlinelibrary.book.BookEntity;
+import dev.vudovenko.onlinelibrary.book.VersionFingerprint;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -13,6 +23,15 @@ public class AuthorService {
 
     private final AuthorRepository authorRepository;
     private final AuthorEntityConverter authorEntityConverter;
+    private final ApplicationEventPublisher eventPublisher;
+    private final AuthorIdIndex authorIdIndex;
+    private final AuthorNameIndex authorNameIndex;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadAuthorIndexes() {
+        authorIdIndex.initialize(authorRepository.findAllIds());
+        authorNameIndex.initialize(authorRepository.findAllSuggestions());
+    }
 
     public Author createAuthor(Author author) {
         if (authorRepository.existsByName(author.name())) {
@@ -20,30 +39,94 @@ public class AuthorService {
                     .formatted(author.name()));
         }
         AuthorEntity entityToSave = authorEntityConverter.toEntity(author);
+        AuthorEntity savedEntity = authorRepository.save(entityToSave);
+        authorIdIndex.add(savedEntity.getId());
+        authorNameIndex.add(savedEntity.getId(), savedEntity.getName());
 
-        return authorEntityConverter.toDomain(
-                authorRepository.save(entityToSave)
-        );
+        return authorEntityConverter.toDomain(savedEntity);
     }
 
     public boolean isAuthorExistsById(Long id) {
+        if (id != null && authorIdIndex.isInitialized()) {
+            return authorIdIndex.contains(id);
+        }
         return authorRepository.existsById(id);
     }
 
-    public List<Author> getAllAuthors() {
-        return authorRepository.findAllWithBooks()
+    /**
+     * Served from {@link AuthorNameIndex}; the database is only asked while the
+     * index is still loading.
+     */
+    public List<AuthorSuggestion> suggestAuthors(AuthorSuggestFilter authorSuggestFilter) {
+        int limit = authorSuggestFilter.limit() != null
+                ? authorSuggestFilter.limit()
+                : 10;
+        if (authorNameIndex.isInitialized()) {
+            return authorNameIndex.suggest(authorSuggestFilter.prefix(), limit);
+        }
+        return authorRepository.findSuggestions(
+                AuthorNameIndex.toKey(authorSuggestFilter.prefix()),
+                limit
+        );
+    }
+
+    public Set<Long> findExistingAuthorIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return Set.of();
+        }
+        return authorRepository.findExistingIds(ids);
+    }
+
+    /**
+     * Loads one page of authors and then all of their books with a single
+     * {@code author_id IN (...)} query, so a page always costs two statements.
+     */
+    @Transactional(readOnly = true)
+    public AuthorPage getAllAuthors(AuthorSearchFilter authorSearchFilter) {
+        int pageSize = authorSearchFilter.pageSize() != null
+                ? authorSearchFilter.pageSize()
+                : 10;
+        int pageNumber = authorSearchFilter.pageNumber() != null
+                ? authorSearchFilter.pageNumber()
+                : 0;
+
+        List<AuthorEntity> authors = authorRepository.findAuthorsPage(
+                Pageable
+                        .ofSize(pageSize)
+                        .withPage(pageNumber)
+        );
+        VersionFingerprint fingerprint = new VersionFingerprint();
+        if (authors.isEmpty()) {
+            return new AuthorPage(List.of(), fingerprint.build());
+        }
+
+        Map<Long, List<BookEntity>> booksByAuthorId = authorRepository
+                .findBooksByAuthorIds(
+                        authors.stream()
+                                .map(AuthorEntity::getId)
+                                .toList()
+                )
                 .stream()
-                .map(authorEntityConverter::toDomain)
+                .collect(Collectors.groupingBy(BookEntity::getAuthorId));
+
+        List<Author> page = authors.stream()
+                .map(author -> {
+                    List<BookEntity> books = booksByAuthorId.getOrDefault(author.getId(), List.of());
+                    fingerprint.add(author.getId(), author.getVersion());
+                    books.forEach(book -> fingerprint.add(book.getId(), book.getVersion()));
+                    return authorEntityConverter.toDomain(author, books);
+                })
                 .toList();
+        return new AuthorPage(page, fingerprint.build());
     }
 
     @Transactional
     public void deleteAuthor(Long authorId) {
-        if (!authorRepository.existsById(authorId)) {
+        authorRepository.deleteAuthorFromBooks(authorId);
+        if (authorRepository.deleteAuthorById(authorId) == 0) {
             throw new EntityNotFoundException("Not found author by id=%s"
                     .formatted(authorId));
         }
-        authorRepository.deleteAuthorFromBooks(authorId);
-        authorRepository.deleteById(authorId);
+        eventPublisher.publishEvent(new AuthorDeletedEvent(authorId));
     }
 }
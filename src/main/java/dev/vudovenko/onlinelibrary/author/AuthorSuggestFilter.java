@@ -0,0 +1,17 @@
+package dev.vudovenko.onlinelibrary.author;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+public record AuthorSuggestFilter(
+
+        @NotNull
+        @Size(max = 100)
+        String prefix,
+        @Min(1)
+        @Max(50)
+        Integer limit
+) {
+}
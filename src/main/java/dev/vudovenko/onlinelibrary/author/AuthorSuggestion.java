@@ -0,0 +1,8 @@
+package dev.vudovenko.onlinelibrary.author;
+
+public record AuthorSuggestion(
+
+        Long id,
+        String name
+) {
+}
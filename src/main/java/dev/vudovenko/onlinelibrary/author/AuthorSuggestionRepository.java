@@ -0,0 +1,12 @@
+package dev.vudovenko.onlinelibrary.author;
+
+import java.util.List;
+
+public interface AuthorSuggestionRepository {
+
+    /**
+     * Up to {@code limit} authors whose lower-cased name starts with {@code keyPrefix},
+     * in the order of the {@code lower(name) text_pattern_ops} index.
+     */
+    List<AuthorSuggestion> findSuggestions(String keyPrefix, int limit);
+}
@@ -0,0 +1,69 @@
+package dev.vudovenko.onlinelibrary.author;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.query.NativeQuery;
+
+import java.util.List;
+
+@RequiredArgsConstructor
+class AuthorSuggestionRepositoryImpl implements AuthorSuggestionRepository {
+
+    private static final String SELECT_SUGGESTIONS = "SELECT a.id, a.name FROM authors a";
+    private static final String FROM_PREFIX = " WHERE lower(a.name) ~>=~ :keyPrefix";
+    private static final String BEFORE_PREFIX_END = " AND lower(a.name) ~<~ :keyPrefixEnd";
+    private static final String ORDER_AND_LIMIT = " ORDER BY lower(a.name) USING ~<~, a.id LIMIT :limit";
+
+    private final EntityManager entityManager;
+
+    /**
+     * A range over the pattern operators of {@code idx_authors_name_lower}, the same as the
+     * name prefix filter of {@code BookSearchQuery}: {@code LIKE 'prefix%'} only becomes an
+     * index range when the planner sees the value, which a generic plan does not.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<AuthorSuggestion> findSuggestions(String keyPrefix, int limit) {
+        StringBuilder sql = new StringBuilder(SELECT_SUGGESTIONS);
+        String keyPrefixEnd = null;
+        if (!keyPrefix.isEmpty()) {
+            sql.append(FROM_PREFIX);
+            keyPrefixEnd = prefixEnd(keyPrefix);
+            if (keyPrefixEnd != null) {
+                sql.append(BEFORE_PREFIX_END);
+            }
+        }
+        sql.append(ORDER_AND_LIMIT);
+
+        NativeQuery<Object[]> query = entityManager
+                .createNativeQuery(sql.toString())
+                .unwrap(NativeQuery.class);
+        query.addScalar("id", Long.class)
+                .addScalar("name", String.class);
+        query.addSynchronizedEntityClass(AuthorEntity.class);
+        if (!keyPrefix.isEmpty()) {
+            query.setParameter("keyPrefix", keyPrefix);
+        }
+        if (keyPrefixEnd != null) {
+            query.setParameter("keyPrefixEnd", keyPrefixEnd);
+        }
+        query.setParameter("limit", limit);
+
+        return query
+                .setTupleTransformer((row, aliases) -> new AuthorSuggestion((Long) row[0], (String) row[1]))
+                .getResultList();
+    }
+
+    /**
+     * Names with the prefix are exactly the ones from the prefix up to, but excluding,
+     * the prefix with its last character incremented.
+     */
+    private static String prefixEnd(String prefix) {
+        int lastCodePoint = prefix.codePointBefore(prefix.length());
+        if (lastCodePoint == Character.MAX_CODE_POINT) {
+            return null;
+        }
+        return prefix.substring(0, prefix.length() - Character.charCount(lastCodePoint))
+                + Character.toString(lastCodePoint + 1);
+    }
+}
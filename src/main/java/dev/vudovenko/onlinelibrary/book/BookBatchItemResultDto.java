@@ -0,0 +1,13 @@
+package dev.vudovenko.onlinelibrary.book;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record BookBatchItemResultDto(
+
+        int index,
+        int status,
+        BookDto book,
+        String error
+) {
+}
@@ -0,0 +1,20 @@
+package dev.vudovenko.onlinelibrary.book;
+
+public record BookBatchResult(
+
+        Book book,
+        String error
+) {
+
+    public static BookBatchResult created(Book book) {
+        return new BookBatchResult(book, null);
+    }
+
+    public static BookBatchResult rejected(String error) {
+        return new BookBatchResult(null, error);
+    }
+
+    public boolean isCreated() {
+        return book != null;
+    }
+}
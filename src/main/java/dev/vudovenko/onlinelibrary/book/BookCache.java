@@ -0,0 +1,95 @@
+package dev.vudovenko.onlinelibrary.book;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import dev.vudovenko.onlinelibrary.author.AuthorDeletedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Bounded read-through cache for books by id.
+ * <p>
+ * Loads run outside of the cache lock. Every invalidation bumps a generation
+ * counter and a load only publishes its result if no invalidation happened
+ * while it was reading, so a row read before a write can never be cached
+ * after that write has been invalidated.
+ */
+@Component
+public class BookCache implements MeterBinder {
+
+    private final Cache<Long, VersionedBook> cache;
+    private final AtomicLong generation = new AtomicLong();
+
+    public BookCache(
+            @Value("${library.book-cache.maximum-size:10000}") long maximumSize,
+            @Value("${library.book-cache.expire-after-write:10m}") Duration expireAfterWrite
+    ) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+    }
+
+    public VersionedBook get(Long id, Function<Long, VersionedBook> loader) {
+        VersionedBook cachedBook = cache.getIfPresent(id);
+        if (cachedBook != null) {
+            return cachedBook;
+        }
+
+        long loadGeneration = generation.get();
+        VersionedBook loadedBook = loader.apply(id);
+        cache.asMap().compute(
+                id,
+                (key, currentBook) -> generation.get() == loadGeneration
+                        ? loadedBook
+                        : currentBook
+        );
+        return loadedBook;
+    }
+
+    public VersionedBook getIfPresent(Long id) {
+        return cache.getIfPresent(id);
+    }
+
+    public void invalidate(Long id) {
+        generation.incrementAndGet();
+        cache.invalidate(id);
+    }
+
+    public void invalidateByAuthorId(Long authorId) {
+        generation.incrementAndGet();
+        cache.asMap()
+                .values()
+                .removeIf(book -> Objects.equals(book.book().authorId(), authorId));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAuthorDeleted(AuthorDeletedEvent event) {
+        invalidateByAuthorId(event.authorId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event) {
+        invalidate(event.bookId());
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "books");
+    }
+}
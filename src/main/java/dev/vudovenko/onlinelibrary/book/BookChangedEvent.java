@@ -0,0 +1,11 @@
+package dev.vudovenko.onlinelibrary.book;
+
+/**
+ * Published by {@link BookService} when a book is updated or deleted; listeners that
+ * need the committed state should use {@code @TransactionalEventListener}.
+ */
+public record BookChangedEvent(
+
+        Long bookId
+) {
+}
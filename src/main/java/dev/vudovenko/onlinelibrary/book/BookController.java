@@ -1,14 +1,31 @@
 package dev.vudovenko.onlinelibrary.book;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import jakarta.validation.ConstraintViolation;
 import jakarta.validation.Valid;
+import jakarta.validation.Validator;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.ETag;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @RestController
 @RequiredArgsConstructor
@@ -16,18 +33,62 @@ public class BookController {
 
     private static final Logger LOG = LoggerFactory.getLogger(BookController.class);
 
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    static final String NDJSON_VALUE = "application/x-ndjson";
+    /**
+     * The batch is created in one transaction and its author ids are checked with one
+     * {@code IN} list, which has to stay well below the 32767 bind parameters of PostgreSQL.
+     */
+    static final int MAX_BATCH_SIZE = 1000;
+
     private final BookService bookService;
     private final BookDtoConverter dtoConverter;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
 
     @GetMapping("/books")
-    public List<BookDto> getAllBooks(
+    public ResponseEntity<List<BookDto>> getAllBooks(
             @Valid BookSearchFilter bookSearchFilter
     ) {
         LOG.info("Get request for getAllBooks");
-        return bookService.searchAllBooks(bookSearchFilter)
+        BookSlice slice = bookService.searchAllBooks(bookSearchFilter);
+
+        List<BookDto> books = slice.books()
                 .stream()
                 .map(dtoConverter::toDto)
                 .toList();
+
+        // a matching If-None-Match turns this into a 304 before the body is serialized
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .eTag(VersionFingerprint.weakETag(slice.fingerprint()))
+                .varyBy(HttpHeaders.ACCEPT);
+        if (slice.nextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, slice.nextCursor());
+        }
+        return response.body(books);
+    }
+
+    @GetMapping(value = "/books/export", produces = NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportBooks() {
+        LOG.info("Get request for exportBooks");
+        ObjectWriter writer = objectMapper
+                .writerFor(BookDto.class)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .withRootValueSeparator("\n");
+
+        StreamingResponseBody body = outputStream -> {
+            try (SequenceWriter sequenceWriter = writer.writeValues(outputStream)) {
+                bookService.exportBooks(book -> {
+                    try {
+                        sequenceWriter.write(dtoConverter.toDto(book));
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+
+        return ResponseEntity.ok().body(body);
     }
 
     @PostMapping("/books")
@@ -43,12 +104,59 @@ public class BookController {
                 .body(dtoConverter.toDto(createdBook));
     }
 
+    @PostMapping("/books/batch")
+    public List<BookBatchItemResultDto> createBooks(
+            @RequestBody @Size(max = MAX_BATCH_SIZE) List<BookDto> booksToCreate
+    ) {
+        LOG.info("Get request for createBooks: size={}", booksToCreate.size());
+
+        BookBatchItemResultDto[] results = new BookBatchItemResultDto[booksToCreate.size()];
+        List<Integer> validIndexes = new ArrayList<>(booksToCreate.size());
+        List<Book> validBooks = new ArrayList<>(booksToCreate.size());
+        for (int i = 0; i < booksToCreate.size(); i++) {
+            String validationError = validate(booksToCreate.get(i));
+            if (validationError != null) {
+                results[i] = new BookBatchItemResultDto(
+                        i,
+                        HttpStatus.BAD_REQUEST.value(),
+                        null,
+                        validationError
+                );
+                continue;
+            }
+            validIndexes.add(i);
+            validBooks.add(dtoConverter.toDomain(booksToCreate.get(i)));
+        }
+
+        List<BookBatchResult> createdBooks = bookService.createBooks(validBooks);
+        for (int i = 0; i < createdBooks.size(); i++) {
+            int index = validIndexes.get(i);
+            results[index] = toItemResult(index, createdBooks.get(i));
+        }
+        return List.of(results);
+    }
+
     @GetMapping("/books/{id}")
-    public BookDto findById(
-            @PathVariable("id") Long id
+    public ResponseEntity<BookDto> findById(
+            @PathVariable("id") Long id,
+            WebRequest webRequest
     ) {
         LOG.info("Get request for findById: id={}", id);
-        return dtoConverter.toDto(bookService.findById(id));
+        if (webRequest.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+                || webRequest.getHeader(HttpHeaders.IF_MODIFIED_SINCE) != null) {
+            BookVersion version = bookService.findVersion(id);
+            if (webRequest.checkNotModified(eTag(version.version()), version.updatedAt().toEpochMilli())) {
+                // 304 with ETag and Last-Modified already set
+                return null;
+            }
+        }
+
+        VersionedBook book = bookService.findVersionedById(id);
+        return ResponseEntity.ok()
+                .eTag(eTag(book.version()))
+                .lastModified(book.updatedAt())
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(dtoConverter.toDto(book.book()));
     }
 
     @DeleteMapping("/books/{id}")
@@ -64,18 +172,84 @@ public class BookController {
     }
 
     @PutMapping("/books/{id}")
-    public BookDto updateBook(
+    public ResponseEntity<BookDto> updateBook(
             @PathVariable("id") Long id,
-            @RequestBody @Valid BookDto bookDtoToUpdate
+            @RequestBody @Valid BookDto bookDtoToUpdate,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
     ) {
         LOG.info("Get request for update book: id={}, bookToUpdate={}",
                 id, bookDtoToUpdate);
 
-        Book updatedBook = bookService.updateBook(
+        VersionedBook updatedBook = bookService.updateBook(
                 id,
-                dtoConverter.toDomain(bookDtoToUpdate)
+                dtoConverter.toDomain(bookDtoToUpdate),
+                parseVersions(ifMatch)
+        );
+
+        return ResponseEntity.ok()
+                .eTag(eTag(updatedBook.version()))
+                .lastModified(updatedBook.updatedAt())
+                .body(dtoConverter.toDto(updatedBook.book()));
+    }
+
+    private static String eTag(long version) {
+        return "\"" + version + "\"";
+    }
+
+    /**
+     * An If-Match header is a list of ETags (RFC 9110, section 13.1.1). Only strong ETags
+     * of this server can match a stored version; weak or unknown ones never do, so a header
+     * without any of them fails the precondition instead of being a bad request.
+     *
+     * @return the versions an If-Match header accepts, or {@code null} if any version will do
+     */
+    private static Set<Long> parseVersions(String ifMatch) {
+        if (ifMatch == null) {
+            return null;
+        }
+        Set<Long> versions = new HashSet<>();
+        for (ETag eTag : ETag.parse(ifMatch)) {
+            if (eTag.isWildcard()) {
+                return null;
+            }
+            if (!eTag.weak()) {
+                try {
+                    versions.add(Long.parseLong(eTag.tag()));
+                } catch (NumberFormatException e) {
+                    // not an ETag of this server
+                }
+            }
+        }
+        return versions;
+    }
+
+    private BookBatchItemResultDto toItemResult(int index, BookBatchResult result) {
+        if (!result.isCreated()) {
+            return new BookBatchItemResultDto(
+                    index,
+                    HttpStatus.BAD_REQUEST.value(),
+                    null,
+                    result.error()
+            );
+        }
+        return new BookBatchItemResultDto(
+                index,
+                HttpStatus.CREATED.value(),
+                dtoConverter.toDto(result.book()),
+                null
         );
+    }
 
-        return dtoConverter.toDto(updatedBook);
+    private String validate(BookDto bookDto) {
+        if (bookDto == null) {
+            return "book must not be null";
+        }
+        Set<ConstraintViolation<BookDto>> violations = validator.validate(bookDto);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .collect(Collectors.joining(", "));
     }
 }
@@ -0,0 +1,40 @@
+package dev.vudovenko.onlinelibrary.book;
+
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Encodes the last seen sort key of a page into an opaque token
+ * and back. An empty token means "start from the first book".
+ */
+@Component
+public class BookCursorCodec {
+
+    private static final String PREFIX = "v1:";
+
+    public String encode(Long lastSeenId) {
+        return Base64.getUrlEncoder()
+                .withoutPadding()
+                .encodeToString((PREFIX + lastSeenId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    public long decode(String cursor) {
+        if (cursor.isBlank()) {
+            return 0L;
+        }
+        try {
+            String decoded = new String(
+                    Base64.getUrlDecoder().decode(cursor),
+                    StandardCharsets.UTF_8
+            );
+            if (!decoded.startsWith(PREFIX)) {
+                throw new IllegalArgumentException("Invalid cursor=%s".formatted(cursor));
+            }
+            return Long.parseLong(decoded.substring(PREFIX.length()));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor=%s".formatted(cursor), e);
+        }
+    }
+}
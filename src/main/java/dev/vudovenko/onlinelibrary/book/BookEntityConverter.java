@@ -12,7 +12,9 @@ public class BookEntityConverter {
                 book.authorId(),
                 book.publicationYear(),
                 book.pageNumber(),
-                book.cost()
+                book.cost(),
+                null,
+                null
         );
     }
 
@@ -27,4 +29,11 @@ public class BookEntityConverter {
         );
     }
 
+    public VersionedBook toVersionedDomain(BookEntity book) {
+        return new VersionedBook(
+                toDomain(book),
+                book.getVersion(),
+                book.getUpdatedAt()
+        );
+    }
 }
@@ -1,65 +1,60 @@
 package dev.vudovenko.onlinelibrary.book;
 
-import org.springframework.data.domain.Pageable;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.List;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface BookRepository extends JpaRepository<BookEntity, Long> {
+public interface BookRepository extends JpaRepository<BookEntity, Long>, BookSearchRepository, BookUpdateRepository {
 
-//    List<BookEntity> findAllByAuthorNameIsAndCostLessThan(String authorName, Integer maxCost);
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select b from BookEntity b order by b.id")
+    Stream<BookEntity> streamAllBooks();
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("SELECT CASE WHEN COUNT(b) > 0 THEN true ELSE false END FROM BookEntity b WHERE b.id = :id")
+    boolean existsById(@Param("id") Long id);
+
+    /**
+     * Answers a conditional GET without loading and mapping the whole row.
+     */
     @Query(
             """
-                    select b
-                    from BookEntity b
-                    where (:authorId is null or b.authorId = :authorId)
-                    and (:maxCost is null or b.cost < :maxCost)
+                    SELECT new dev.vudovenko.onlinelibrary.book.BookVersion(b.version, b.updatedAt)
+                    FROM BookEntity b
+                    WHERE b.id = :id
                     """
     )
-    List<BookEntity> searchBooks(
-            @Param("authorId") Long authorId,
-            @Param("maxCost") Integer maxCost,
-            Pageable pageable
-    );
+    Optional<BookVersion> findVersionById(@Param("id") Long id);
 
+    /**
+     * Locks the statistics rows of these authors and years in the order the statistics
+     * triggers lock them (see the {@code V7__book_statistics_lock_order} migration). A
+     * writer that inserts with several statements calls it first, otherwise two of them
+     * can lock the rows in opposite orders from one statement to the next.
+     */
     @Query(
             value = """
-                    SELECT * from books b
-                    WHERE (:authorId IS NULL OR b.author_id = :authorId)
-                    AND (:cost IS NULL OR b.cost < :cost)
+                    SELECT 1
+                    FROM lock_book_stats(CAST(ARRAY[:authorIds] AS bigint[]), CAST(ARRAY[:pubYears] AS integer[]))
                     """,
             nativeQuery = true
     )
-    List<BookEntity> searchBooksNative(
-            Long authorId,
-            @Param("cost") Integer maxCost
-    );
+    int lockBookStats(@Param("authorIds") Collection<Long> authorIds, @Param("pubYears") Collection<Integer> pubYears);
 
     @Transactional
     @Modifying
-    @Query(
-            """
-                    UPDATE BookEntity b
-                    SET
-                        b.name = :name,
-                        b.authorId = :authorId,
-                        b.publicationYear = :pubYear,
-                        b.pageNumber = :pageNum,
-                        b.cost = :cost
-                    WHERE b.id = :id
-                    """
-    )
-    void updateBook(
-            @Param("id") Long id,
-            @Param("name") String name,
-            @Param("authorId") Long authorId,
-            @Param("pubYear") Integer publicationYear,
-            @Param("pageNum") Integer pageNumber,
-            @Param("cost") Integer cost
-    );
+    @Query("DELETE FROM BookEntity b WHERE b.id = :id")
+    int deleteBookById(@Param("id") Long id);
 }
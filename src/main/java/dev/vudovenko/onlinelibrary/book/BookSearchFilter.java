@@ -1,14 +1,58 @@
 package dev.vudovenko.onlinelibrary.book;
 
 import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Size;
 
+/**
+ * Query parameters of {@code GET /books}. Every filter is optional; {@code maxCost} is
+ * exclusive, as it always was, all other bounds are inclusive. {@code sort} is a comma
+ * separated list of {@link BookDto} fields, each optionally prefixed with {@code -} for
+ * descending order, e.g. {@code sort=-cost,pubYear}.
+ */
 public record BookSearchFilter(
 
         Long authorId,
+        @Min(0)
+        Integer minCost,
         Integer maxCost,
+        Integer minYear,
+        Integer maxYear,
+        @Min(1)
+        Integer minPages,
+        Integer maxPages,
+        @Size(max = 30)
+        String namePrefix,
+        @Size(max = 100)
+        String sort,
         @Min(0)
         Integer pageNumber,
         @Min(3)
-        Integer pageSize
+        Integer pageSize,
+        String cursor,
+        @Size(max = 200)
+        String q
 ) {
+
+    public static final int DEFAULT_PAGE_SIZE = 3;
+    public static final int DEFAULT_PAGE_NUMBER = 1;
+
+    public int pageSizeOrDefault() {
+        return pageSize != null ? pageSize : DEFAULT_PAGE_SIZE;
+    }
+
+    public int pageNumberOrDefault() {
+        return pageNumber != null ? pageNumber : DEFAULT_PAGE_NUMBER;
+    }
+
+    public boolean isCursorMode() {
+        return cursor != null;
+    }
+
+    public boolean isTextSearch() {
+        return q != null && !q.isBlank();
+    }
+
+    public boolean isSorted() {
+        return sort != null && !sort.isBlank();
+    }
 }
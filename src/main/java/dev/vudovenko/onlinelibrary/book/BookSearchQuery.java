@@ -0,0 +1,179 @@
+package dev.vudovenko.onlinelibrary.book;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Native SQL of {@code GET /books} built from a {@link BookSearchFilter}.
+ * <p>
+ * Only the predicates the filter actually sets are written into the statement, so each
+ * filter shape is a different statement with its own prepared plan, and no
+ * {@code :x IS NULL OR ...} branch hides the indexes from the planner. Parameters are
+ * always bound by name, never concatenated into the SQL.
+ * <p>
+ * Structured filters repeat a lot, so their results may go to the query cache; full-text
+ * and name prefix searches are almost never repeated and would only churn it.
+ */
+public record BookSearchQuery(
+
+        String sql,
+        Map<String, Object> parameters,
+        boolean cacheable
+) {
+
+    private static final String COLUMNS =
+            "b.id, b.name, b.author_id, b.pub_year, b.page_num, b.cost, b.version, b.updated_at";
+
+    /**
+     * One page of {@code limit} rows starting at {@code offset}, in the requested order,
+     * by rank for full-text search, or by id otherwise.
+     */
+    public static BookSearchQuery page(BookSearchFilter filter, int limit, long offset) {
+        Builder builder = new Builder(filter);
+        builder.orderBy(filter);
+        builder.limit(limit);
+        builder.sql.append(" OFFSET :offset");
+        builder.parameters.put("offset", offset);
+        return builder.build();
+    }
+
+    /**
+     * Up to {@code limit} rows with an id greater than {@code afterId}, by id.
+     *
+     * @throws IllegalArgumentException if the filter asks for another order
+     */
+    public static BookSearchQuery after(BookSearchFilter filter, long afterId, int limit) {
+        if (filter.isTextSearch() || filter.isSorted()) {
+            throw new IllegalArgumentException(
+                    "Cursor pagination only supports the default order by id, use pageNumber"
+            );
+        }
+        Builder builder = new Builder(filter);
+        builder.where("b.id > :afterId", "afterId", afterId);
+        builder.sql.append(" ORDER BY b.id");
+        builder.limit(limit);
+        return builder.build();
+    }
+
+    private static final class Builder {
+
+        private final StringBuilder sql = new StringBuilder("SELECT " + COLUMNS + " FROM books b");
+        private final Map<String, Object> parameters = new LinkedHashMap<>();
+        private final boolean cacheable;
+        private boolean hasWhere;
+
+        private Builder(BookSearchFilter filter) {
+            cacheable = !filter.isTextSearch()
+                    && (filter.namePrefix() == null || filter.namePrefix().isEmpty());
+            if (filter.isTextSearch()) {
+                sql.append(", websearch_to_tsquery('simple', :q) query");
+                where("b.name_tsv @@ query", "q", filter.q());
+            }
+            where("b.author_id = :authorId", "authorId", filter.authorId());
+            where("b.cost >= :minCost", "minCost", filter.minCost());
+            where("b.cost < :maxCost", "maxCost", filter.maxCost());
+            where("b.pub_year >= :minYear", "minYear", filter.minYear());
+            where("b.pub_year <= :maxYear", "maxYear", filter.maxYear());
+            where("b.page_num >= :minPages", "minPages", filter.minPages());
+            where("b.page_num <= :maxPages", "maxPages", filter.maxPages());
+            if (filter.namePrefix() != null && !filter.namePrefix().isEmpty()) {
+                namePrefix(filter.namePrefix().toLowerCase(Locale.ROOT));
+            }
+        }
+
+        private void where(String predicate, String name, Object value) {
+            if (value == null) {
+                return;
+            }
+            sql.append(hasWhere ? " AND " : " WHERE ").append(predicate);
+            parameters.put(name, value);
+            hasWhere = true;
+        }
+
+        /**
+         * A range over the pattern operators of the {@code lower(name) text_pattern_ops}
+         * index instead of {@code LIKE 'prefix%'}: the planner can only turn {@code LIKE}
+         * into an index range when it sees the value, which a generic plan does not.
+         * Names with the prefix are exactly the ones from the prefix up to, but excluding,
+         * the prefix with its last character incremented.
+         */
+        private void namePrefix(String prefix) {
+            where("lower(b.name) ~>=~ :namePrefix", "namePrefix", prefix);
+
+            int lastCodePoint = prefix.codePointBefore(prefix.length());
+            if (lastCodePoint < Character.MAX_CODE_POINT) {
+                String upperBound = prefix.substring(0, prefix.length() - Character.charCount(lastCodePoint))
+                        + Character.toString(lastCodePoint + 1);
+                where("lower(b.name) ~<~ :namePrefixEnd", "namePrefixEnd", upperBound);
+            }
+        }
+
+        private void orderBy(BookSearchFilter filter) {
+            if (!filter.isSorted()) {
+                sql.append(filter.isTextSearch()
+                        ? " ORDER BY ts_rank(b.name_tsv, query) DESC, b.id"
+                        : " ORDER BY b.id");
+                return;
+            }
+            sql.append(" ORDER BY ");
+            boolean byId = false;
+            for (String order : filter.sort().split(",")) {
+                String field = order.strip();
+                boolean descending = field.startsWith("-");
+                SortField sortField = SortField.of(descending ? field.substring(1) : field);
+                byId |= sortField == SortField.ID;
+                sql.append(sortField.column).append(descending ? " DESC, " : ", ");
+            }
+            if (byId) {
+                sql.setLength(sql.length() - 2);
+            } else {
+                // id breaks ties, so offset pages never overlap or skip rows
+                sql.append("b.id");
+            }
+        }
+
+        private void limit(int limit) {
+            sql.append(" LIMIT :limit");
+            parameters.put("limit", limit);
+        }
+
+        private BookSearchQuery build() {
+            return new BookSearchQuery(sql.toString(), Collections.unmodifiableMap(parameters), cacheable);
+        }
+    }
+
+    private enum SortField {
+
+        ID("id", "b.id"),
+        NAME("name", "b.name"),
+        AUTHOR_ID("authorId", "b.author_id"),
+        PUB_YEAR("pubYear", "b.pub_year"),
+        PAGE_NUM("pageNum", "b.page_num"),
+        COST("cost", "b.cost");
+
+        private final String field;
+        private final String column;
+
+        SortField(String field, String column) {
+            this.field = field;
+            this.column = column;
+        }
+
+        private static SortField of(String field) {
+            return Arrays.stream(values())
+                    .filter(sortField -> sortField.field.equals(field))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalArgumentException(
+                            "Unknown sort field '%s', expected one of %s".formatted(
+                                    field,
+                                    Arrays.stream(values())
+                                            .map(sortField -> sortField.field)
+                                            .toList()
+                            )
+                    ));
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package dev.vudovenko.onlinelibrary.book;
+
+import java.util.List;
+
+public interface BookSearchRepository {
+
+    /**
+     * Maps the selected columns straight into the read model: no {@link BookEntity} is
+     * created, put into the persistence context or snapshotted for dirty checking.
+     */
+    List<VersionedBook> search(BookSearchQuery query);
+}
@@ -0,0 +1,56 @@
+package dev.vudovenko.onlinelibrary.book;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.FlushMode;
+import org.hibernate.query.NativeQuery;
+
+import java.time.Instant;
+import java.util.List;
+
+@RequiredArgsConstructor
+class BookSearchRepositoryImpl implements BookSearchRepository {
+
+    private final EntityManager entityManager;
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<VersionedBook> search(BookSearchQuery query) {
+        NativeQuery<Object[]> nativeQuery = entityManager
+                .createNativeQuery(query.sql())
+                .unwrap(NativeQuery.class);
+        nativeQuery.addScalar("id", Long.class)
+                .addScalar("name", String.class)
+                .addScalar("author_id", Long.class)
+                .addScalar("pub_year", Integer.class)
+                .addScalar("page_num", Integer.class)
+                .addScalar("cost", Integer.class)
+                .addScalar("version", Long.class)
+                .addScalar("updated_at", Instant.class);
+        // any write to books invalidates the cached results
+        nativeQuery.addSynchronizedEntityClass(BookEntity.class);
+        nativeQuery.setCacheable(query.cacheable());
+        // nothing the query reads can be pending in this session, so there is nothing to flush
+        nativeQuery.setHibernateFlushMode(FlushMode.MANUAL);
+        query.parameters().forEach(nativeQuery::setParameter);
+
+        return nativeQuery
+                .setTupleTransformer(BookSearchRepositoryImpl::toVersionedBook)
+                .getResultList();
+    }
+
+    private static VersionedBook toVersionedBook(Object[] row, String[] aliases) {
+        return new VersionedBook(
+                new Book(
+                        (Long) row[0],
+                        (String) row[1],
+                        (Long) row[2],
+                        (Integer) row[3],
+                        (Integer) row[4],
+                        (Integer) row[5]
+                ),
+                (Long) row[6],
+                (Instant) row[7]
+        );
+    }
+}
@@ -1,93 +1,295 @@
 package dev.vudovenko.onlinelibrary.book;
 
 import dev.vudovenko.onlinelibrary.author.AuthorService;
+import dev.vudovenko.onlinelibrary.datasource.ReadYourWritesContext;
+import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityNotFoundException;
+import jakarta.persistence.OptimisticLockException;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Pageable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class BookService {
 
+    // keep in sync with spring.jpa.properties.hibernate.jdbc.batch_size
+    private static final int INSERT_BATCH_SIZE = 50;
+    private static final String FOREIGN_KEY_VIOLATION = "23503";
+
     private final BookRepository bookRepository;
     private final AuthorService authorService;
     private final BookEntityConverter entityConverter;
+    private final BookCursorCodec cursorCodec;
+    private final EntityManager entityManager;
+    private final BookCache bookCache;
+    private final SecondLevelCacheEvictor secondLevelCacheEvictor;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Transactional(readOnly = true)
+    public BookSlice searchAllBooks(BookSearchFilter bookSearchFilter) {
+        int pageSize = bookSearchFilter.pageSizeOrDefault();
+        if (bookSearchFilter.isCursorMode()) {
+            return searchBooksByCursor(bookSearchFilter, pageSize);
+        }
+        int pageNumber = bookSearchFilter.pageNumberOrDefault();
+
+        List<VersionedBook> books = bookRepository.search(
+                BookSearchQuery.page(bookSearchFilter, pageSize, (long) pageNumber * pageSize)
+        );
+
+        return toSlice(books, null);
+    }
+
+    private BookSlice searchBooksByCursor(
+            BookSearchFilter bookSearchFilter,
+            int pageSize
+    ) {
+        long afterId = cursorCodec.decode(bookSearchFilter.cursor());
+
+        // one extra row tells us whether there is a next page at all
+        List<VersionedBook> books = bookRepository.search(
+                BookSearchQuery.after(bookSearchFilter, afterId, pageSize + 1)
+        );
+
+        if (books.size() <= pageSize) {
+            return toSlice(books, null);
+        }
+        List<VersionedBook> page = books.subList(0, pageSize);
+        return toSlice(
+                page,
+                cursorCodec.encode(page.get(pageSize - 1).book().id())
+        );
+    }
 
-    public List<Book> searchAllBooks(BookSearchFilter bookSearchFilter) {
-        int pageSize = bookSearchFilter.pageSize() != null
-                ? bookSearchFilter.pageSize()
-                : 3;
-        int pageNumber = bookSearchFilter.pageNumber() != null
-                ? bookSearchFilter.pageNumber()
-                : 1;
+    private BookSlice toSlice(List<VersionedBook> books, String nextCursor) {
+        VersionFingerprint fingerprint = new VersionFingerprint();
+        books.forEach(book -> fingerprint.add(book.book().id(), book.version()));
 
-        Pageable pageable = Pageable
-                .ofSize(pageSize)
-                .withPage(pageNumber);
+        return new BookSlice(
+                books.stream()
+                        .map(VersionedBook::book)
+                        .toList(),
+                nextCursor,
+                fingerprint.build()
+        );
+    }
 
-        return bookRepository.searchBooks(
-                        bookSearchFilter.authorId(),
-                        bookSearchFilter.maxCost(),
-                        pageable
-                )
-                .stream()
-                .map(entityConverter::toDomain)
-                .toList();
+    /**
+     * Pushes every book to the consumer one by one while the rows are read
+     * from a database cursor, so the catalog is never held in memory at once.
+     */
+    @Transactional(readOnly = true)
+    public void exportBooks(Consumer<Book> consumer) {
+        try (Stream<BookEntity> books = bookRepository.streamAllBooks()) {
+            books.forEach(bookEntity -> {
+                consumer.accept(entityConverter.toDomain(bookEntity));
+                entityManager.detach(bookEntity);
+            });
+        }
     }
 
+    /**
+     * The insert is flushed right away, so a constraint violation surfaces here and not
+     * at the commit.
+     */
+    @Transactional
     public Book createBook(Book bookToCrete) {
         checkAuthorExistence(bookToCrete.authorId());
 
-        BookEntity savedEntity = bookRepository.save(
-                entityConverter.toEntity(bookToCrete)
-        );
+        BookEntity savedEntity;
+        try {
+            savedEntity = bookRepository.saveAndFlush(
+                    entityConverter.toEntity(bookToCrete)
+            );
+        } catch (DataIntegrityViolationException e) {
+            throw authorNotExistsOrRethrow(bookToCrete.authorId(), e);
+        }
+        secondLevelCacheEvictor.lockBooksOfAuthors(Collections.singleton(savedEntity.getAuthorId()));
 
         return entityConverter.toDomain(savedEntity);
     }
 
+    /**
+     * Checks all referenced authors with one query and inserts the books in JDBC batches.
+     * The result list is aligned with the input: books with an unknown author are rejected
+     * and the rest are created.
+     */
+    @Transactional
+    public List<BookBatchResult> createBooks(List<Book> booksToCreate) {
+        Set<Long> existingAuthorIds = authorService.findExistingAuthorIds(
+                booksToCreate.stream()
+                        .map(Book::authorId)
+                        .filter(Objects::nonNull)
+                        .collect(Collectors.toSet())
+        );
+
+        lockBookStats(booksToCreate, existingAuthorIds);
+
+        List<BookBatchResult> results = new ArrayList<>(booksToCreate.size());
+        int pendingInserts = 0;
+        for (Book bookToCreate : booksToCreate) {
+            if (!existingAuthorIds.contains(bookToCreate.authorId())) {
+                results.add(BookBatchResult.rejected("Author not exists by id=%s"
+                        .formatted(bookToCreate.authorId())));
+                continue;
+            }
+            BookEntity bookEntity = entityConverter.toEntity(bookToCreate);
+            entityManager.persist(bookEntity);
+            results.add(BookBatchResult.created(entityConverter.toDomain(bookEntity)));
+
+            if (++pendingInserts == INSERT_BATCH_SIZE) {
+                entityManager.flush();
+                entityManager.clear();
+                pendingInserts = 0;
+            }
+        }
+        secondLevelCacheEvictor.lockBooksOfAuthors(existingAuthorIds);
+        return results;
+    }
+
+    /**
+     * The batch reaches the database as several INSERT statements.
+     */
+    private void lockBookStats(List<Book> booksToCreate, Set<Long> existingAuthorIds) {
+        if (existingAuthorIds.isEmpty()) {
+            return;
+        }
+        Set<Integer> publicationYears = booksToCreate.stream()
+                .filter(book -> existingAuthorIds.contains(book.authorId()))
+                .map(Book::publicationYear)
+                .collect(Collectors.toSet());
+        bookRepository.lockBookStats(existingAuthorIds, publicationYears);
+    }
+
     public Book findById(Long id) {
-        BookEntity foundBook = bookRepository.findById(id)
+        return findVersionedById(id).book();
+    }
+
+    public VersionedBook findVersionedById(Long id) {
+        return bookCache.get(id, this::loadById);
+    }
+
+    /**
+     * The version of a cached book costs nothing, otherwise only the version
+     * and the modification time are read, without loading the book itself.
+     * Like the cached book, the version comes from the primary, so it never
+     * lags behind the book it describes.
+     */
+    public BookVersion findVersion(Long id) {
+        VersionedBook cachedBook = bookCache.getIfPresent(id);
+        if (cachedBook != null) {
+            return cachedBook.toVersion();
+        }
+        return ReadYourWritesContext.readFromPrimary(() -> bookRepository.findVersionById(id))
                 .orElseThrow(() -> new EntityNotFoundException(
                         "No found book by id=%s".formatted(id)
                 ));
+    }
 
-        return entityConverter.toDomain(foundBook);
+    /**
+     * The loaded book is shared by all clients through the {@link BookCache},
+     * so it is always read from the primary.
+     */
+    private VersionedBook loadById(Long id) {
+        BookEntity foundBook = ReadYourWritesContext.readFromPrimary(() -> bookRepository.findById(id))
+                .orElseThrow(() -> new EntityNotFoundException(
+                        "No found book by id=%s".formatted(id)
+                ));
+
+        return entityConverter.toVersionedDomain(foundBook);
     }
 
+    @Transactional
     public void deleteBook(Long id) {
-        if (!bookRepository.existsById(id)) {
+        if (bookRepository.deleteBookById(id) == 0) {
             throw new EntityNotFoundException("No found book by id=%s".formatted(id));
         }
-        bookRepository.deleteById(id);
+        secondLevelCacheEvictor.lockBook(id);
+        eventPublisher.publishEvent(new BookChangedEvent(id));
     }
 
+    /**
+     * The author check is answered from memory, so a successful update takes an
+     * {@code UPDATE} and the read of the new row. A foreign key violation still maps to
+     * the same error in case the author was deleted concurrently.
+     */
+    @Transactional
     public Book updateBook(
             Long id,
             Book bookToUpdate
     ) {
-        if (!bookRepository.existsById(id)) {
-            throw new EntityNotFoundException("No found book by id=%s".formatted(id));
-        }
+        return updateBook(id, bookToUpdate, null).book();
+    }
+
+    /**
+     * @param expectedVersions if not {@code null}, the book is only updated if it still has
+     *                         one of these versions, otherwise an {@link OptimisticLockException}
+     *                         is thrown
+     */
+    @Transactional
+    public VersionedBook updateBook(
+            Long id,
+            Book bookToUpdate,
+            Set<Long> expectedVersions
+    ) {
         checkAuthorExistence(bookToUpdate.authorId());
 
-        bookRepository.updateBook(
-                id,
-                bookToUpdate.name(),
-                bookToUpdate.authorId(),
-                bookToUpdate.publicationYear(),
-                bookToUpdate.pageNumber(),
-                bookToUpdate.cost()
-        );
-        return entityConverter.toDomain(bookRepository.findById(id).orElseThrow());
+        boolean updated;
+        try {
+            // no version can match an empty set, and IN () is not valid SQL
+            updated = (expectedVersions == null || !expectedVersions.isEmpty())
+                    && bookRepository.updateBook(id, bookToUpdate, expectedVersions);
+        } catch (DataIntegrityViolationException e) {
+            throw authorNotExistsOrRethrow(bookToUpdate.authorId(), e);
+        }
+        if (!updated) {
+            if (expectedVersions != null
+                    && ReadYourWritesContext.readFromPrimary(() -> bookRepository.existsById(id))) {
+                throw new OptimisticLockException(
+                        "Book id=%s has been changed, expected one of versions %s".formatted(id, expectedVersions)
+                );
+            }
+            throw new EntityNotFoundException("No found book by id=%s".formatted(id));
+        }
+        secondLevelCacheEvictor.lockBook(id);
+        eventPublisher.publishEvent(new BookChangedEvent(id));
+        return entityConverter.toVersionedDomain(bookRepository.findById(id).orElseThrow());
     }
 
     private void checkAuthorExistence(Long authorId) {
         if (!authorService.isAuthorExistsById(authorId)) {
-            throw new IllegalArgumentException("Author not exists by id=%s"
-                    .formatted(authorId));
+            throw authorNotExists(authorId, null);
+        }
+    }
+
+    /**
+     * Only a foreign key violation means that the author is missing; any other
+     * constraint failure is not the client's fault and is thrown as it is.
+     */
+    private static RuntimeException authorNotExistsOrRethrow(Long authorId, DataIntegrityViolationException e) {
+        if (NestedExceptionUtils.getMostSpecificCause(e) instanceof SQLException sqlException
+                && FOREIGN_KEY_VIOLATION.equals(sqlException.getSQLState())) {
+            return authorNotExists(authorId, e);
         }
+        return e;
+    }
+
+    private static IllegalArgumentException authorNotExists(Long authorId, Throwable cause) {
+        return new IllegalArgumentException("Author not exists by id=%s"
+                .formatted(authorId), cause);
     }
 }
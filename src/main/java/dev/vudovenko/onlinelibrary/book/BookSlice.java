@@ -0,0 +1,11 @@
+package dev.vudovenko.onlinelibrary.book;
+
+import java.util.List;
+
+public record BookSlice(
+
+        List<Book> books,
+        String nextCursor,
+        String fingerprint
+) {
+}
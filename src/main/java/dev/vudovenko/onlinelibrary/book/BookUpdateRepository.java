@@ -0,0 +1,18 @@
+package dev.vudovenko.onlinelibrary.book;
+
+import java.util.Collection;
+
+public interface BookUpdateRepository {
+
+    /**
+     * Updates the book with one native statement that Hibernate treats as a bulk update
+     * of {@link BookEntity}: cached query results over books are invalidated and the
+     * cached books and author book collections are evicted after the commit.
+     *
+     * @param expectedVersions if not {@code null}, only a book that still has one of these
+     *                         versions is updated; must not be empty
+     * @return whether the book was updated; {@code false} if there is no such book or it
+     * has been changed meanwhile
+     */
+    boolean updateBook(Long id, Book book, Collection<Long> expectedVersions);
+}
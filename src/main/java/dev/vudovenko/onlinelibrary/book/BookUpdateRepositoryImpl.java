@@ -0,0 +1,46 @@
+package dev.vudovenko.onlinelibrary.book;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.query.NativeQuery;
+
+import java.util.Collection;
+
+@RequiredArgsConstructor
+class BookUpdateRepositoryImpl implements BookUpdateRepository {
+
+    private static final String UPDATE_BOOK = """
+            UPDATE books
+            SET
+                name = :name,
+                author_id = :authorId,
+                pub_year = :pubYear,
+                page_num = :pageNum,
+                cost = :cost,
+                version = version + 1,
+                updated_at = now()
+            WHERE id = :id
+            """;
+    private static final String IF_VERSION = "AND version IN (:expectedVersions)";
+
+    private final EntityManager entityManager;
+
+    @Override
+    public boolean updateBook(Long id, Book book, Collection<Long> expectedVersions) {
+        NativeQuery<?> query = entityManager
+                .createNativeQuery(expectedVersions == null ? UPDATE_BOOK : UPDATE_BOOK + IF_VERSION)
+                .unwrap(NativeQuery.class);
+        // without it Hibernate would evict every region and invalidate every cached query
+        query.addSynchronizedEntityClass(BookEntity.class);
+        query.setParameter("id", id)
+                .setParameter("name", book.name())
+                .setParameter("authorId", book.authorId())
+                .setParameter("pubYear", book.publicationYear())
+                .setParameter("pageNum", book.pageNumber())
+                .setParameter("cost", book.cost());
+        if (expectedVersions != null) {
+            query.setParameter("expectedVersions", expectedVersions);
+        }
+        return query.executeUpdate() > 0;
+    }
+}
@@ -0,0 +1,10 @@
+package dev.vudovenko.onlinelibrary.book;
+
+import java.time.Instant;
+
+public record BookVersion(
+
+        long version,
+        Instant updatedAt
+) {
+}
@@ -0,0 +1,100 @@
+package dev.vudovenko.onlinelibrary.book;
+
+import dev.vudovenko.onlinelibrary.author.AuthorEntity;
+import jakarta.persistence.EntityManager;
+import org.hibernate.cache.spi.access.CachedDomainDataAccess;
+import org.hibernate.cache.spi.access.CollectionDataAccess;
+import org.hibernate.cache.spi.access.EntityDataAccess;
+import org.hibernate.cache.spi.access.SoftLock;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.persister.collection.CollectionPersister;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+
+/**
+ * Keeps the second-level cache consistent where Hibernate does not do it itself.
+ * <p>
+ * {@code AuthorEntity.books} is mapped on the author side only, so inserting a book never
+ * touches the cached collection of its author, and {@code COPY} bypasses Hibernate
+ * altogether. Native updates run as Hibernate bulk statements, which only empty the
+ * regions: a reader that loaded the old row before the commit could still put it back
+ * afterwards.
+ * <p>
+ * Every method must be called inside the writing transaction, after the statement. It
+ * places the soft lock Hibernate uses for READ_WRITE regions on the changed entries and
+ * releases it after the transaction completed. An entry that is, or was, locked refuses
+ * every put from a transaction that started before the release.
+ */
+@Component
+public class SecondLevelCacheEvictor {
+
+    private static final String AUTHOR_BOOKS_ROLE = AuthorEntity.class.getName() + ".books";
+    private static final String[] BOOK_QUERY_SPACES = {"books"};
+
+    private final EntityManager entityManager;
+
+    public SecondLevelCacheEvictor(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * After a native update of this book.
+     */
+    public void lockBook(Long bookId) {
+        SessionImplementor session = currentSession();
+        SessionFactoryImplementor factory = session.getFactory();
+        EntityPersister persister = factory.getMappingMetamodel().getEntityDescriptor(BookEntity.class);
+        EntityDataAccess access = persister.getCacheAccessStrategy();
+        if (access != null) {
+            lock(session, access, access.generateCacheKey(bookId, persister, factory, session.getTenantIdentifier()));
+        }
+    }
+
+    /**
+     * After books of these authors have been inserted.
+     */
+    public void lockBooksOfAuthors(Collection<Long> authorIds) {
+        SessionImplementor session = currentSession();
+        SessionFactoryImplementor factory = session.getFactory();
+        CollectionPersister persister = factory.getMappingMetamodel().getCollectionDescriptor(AUTHOR_BOOKS_ROLE);
+        CollectionDataAccess access = persister.getCacheAccessStrategy();
+        if (access == null) {
+            return;
+        }
+        for (Long authorId : authorIds) {
+            if (authorId != null) {
+                lock(session, access, access.generateCacheKey(authorId, persister, factory, session.getTenantIdentifier()));
+            }
+        }
+    }
+
+    /**
+     * After books have been written without Hibernate; cached query results over books
+     * are invalid from now on and stay invalid for readers that started before the commit,
+     * the same as after a statement Hibernate executed.
+     */
+    public void invalidateBookQueries() {
+        SessionImplementor session = currentSession();
+        session.getFactory().getCache().getTimestampsCache().preInvalidate(BOOK_QUERY_SPACES, session);
+        session.getActionQueue().registerProcess((success, completedSession) -> completedSession.getFactory()
+                .getCache()
+                .getTimestampsCache()
+                .invalidate(BOOK_QUERY_SPACES, completedSession));
+    }
+
+    private static void lock(SessionImplementor session, CachedDomainDataAccess access, Object key) {
+        SoftLock lock = access.lockItem(session, key, null);
+        session.getActionQueue().registerProcess((success, completedSession) -> access.unlockItem(completedSession, key, lock));
+    }
+
+    private SessionImplementor currentSession() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Second-level cache entries can only be locked inside the writing transaction");
+        }
+        return entityManager.unwrap(SessionImplementor.class);
+    }
+}
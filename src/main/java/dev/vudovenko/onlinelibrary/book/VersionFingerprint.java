@@ -0,0 +1,53 @@
+package dev.vudovenko.onlinelibrary.book;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * Digest of the ids and versions of a list of rows, used as the ETag of a page.
+ * Any added, removed, reordered or updated row changes it.
+ */
+public class VersionFingerprint {
+
+    private static final int LENGTH = 16;
+
+    private final MessageDigest digest;
+    private final ByteBuffer buffer = ByteBuffer.allocate(2 * Long.BYTES);
+
+    public VersionFingerprint() {
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public VersionFingerprint add(long id, long version) {
+        buffer.clear();
+        buffer.putLong(id).putLong(version);
+        digest.update(buffer.array());
+        return this;
+    }
+
+    /**
+     * A page is only equal to another one semantically: the same rows can be sent as JSON,
+     * CBOR or Smile, gzipped or not. Tomcat also refuses to compress a response with a
+     * strong ETag, so pages are tagged weakly; If-None-Match compares weakly anyway.
+     */
+    public static String weakETag(String fingerprint) {
+        return "W/\"" + fingerprint + "\"";
+    }
+
+    /**
+     * Completes the digest; the fingerprint can not be used afterwards.
+     */
+    public String build() {
+        byte[] hash = digest.digest();
+        return Base64.getUrlEncoder()
+                .withoutPadding()
+                .encodeToString(Arrays.copyOf(hash, LENGTH));
+    }
+}
@@ -0,0 +1,19 @@
+package dev.vudovenko.onlinelibrary.book;
+
+import java.time.Instant;
+
+/**
+ * A book together with the version and modification time its ETag and
+ * Last-Modified headers are derived from.
+ */
+public record VersionedBook(
+
+        Book book,
+        long version,
+        Instant updatedAt
+) {
+
+    public BookVersion toVersion() {
+        return new BookVersion(version, updatedAt);
+    }
+}
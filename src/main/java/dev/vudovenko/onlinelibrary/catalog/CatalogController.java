@@ -0,0 +1,75 @@
+package dev.vudovenko.onlinelibrary.catalog;
+
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+@RestController
+@RequiredArgsConstructor
+public class CatalogController {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CatalogController.class);
+
+    static final String CSV_VALUE = "text/csv";
+
+    private final CatalogImportService importService;
+    private final CatalogImportReports importReports;
+    private final CatalogExportService exportService;
+
+    /**
+     * The body is read while it is uploaded, so the upload size is not limited by memory.
+     */
+    @PostMapping(value = "/catalog/imports", consumes = CSV_VALUE)
+    public CatalogImportResult importBooks(InputStream csv) throws IOException {
+        LOG.info("Post request for importBooks");
+        return importService.importBooks(csv);
+    }
+
+    @GetMapping(value = "/catalog/imports/{reportId}/rejected", produces = CSV_VALUE)
+    public ResponseEntity<Resource> getRejectedRows(
+            @PathVariable("reportId") String reportId
+    ) {
+        LOG.info("Get request for getRejectedRows: reportId={}", reportId);
+        return ResponseEntity.ok(new FileSystemResource(importReports.find(reportId)));
+    }
+
+    /**
+     * Streams a whole table straight from {@code COPY TO STDOUT}; the rows never become
+     * objects on the way.
+     */
+    @GetMapping("/catalog/exports/{table}")
+    public ResponseEntity<StreamingResponseBody> exportTable(
+            @PathVariable("table") String tableName,
+            @RequestParam(name = "format", defaultValue = "csv") String formatName
+    ) {
+        LOG.info("Get request for exportTable: table={}, format={}", tableName, formatName);
+        CatalogTable table = CatalogTable.of(tableName);
+        CatalogExportFormat format = CatalogExportFormat.of(formatName);
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.mediaType()))
+                .header(
+                        HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment()
+                                .filename(format.fileName(table))
+                                .build()
+                                .toString()
+                )
+                .body(outputStream -> exportService.export(table, format, outputStream));
+    }
+}
@@ -0,0 +1,11 @@
+package dev.vudovenko.onlinelibrary.catalog;
+
+public record CatalogExportResult(
+
+        String table,
+        String format,
+        long rows,
+        long millis,
+        long rowsPerSecond
+) {
+}
@@ -0,0 +1,83 @@
+package dev.vudovenko.onlinelibrary.catalog;
+
+import lombok.RequiredArgsConstructor;
+import org.postgresql.PGConnection;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Streams whole tables out with {@code COPY ... TO STDOUT}: the rows go from the
+ * connection to the output stream without being parsed or turned into objects.
+ * A single statement reads a consistent snapshot of the table, and as a read-only
+ * transaction it is served by the replica when there is one.
+ */
+@Service
+@RequiredArgsConstructor
+public class CatalogExportService {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogExportService.class);
+
+    private static final int GZIP_BUFFER_SIZE = 64 * 1024;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Runs {@code exports} in one read-only {@code REPEATABLE READ} transaction, so all
+     * tables exported by it come from the same snapshot and reference each other
+     * consistently. The isolation level is set with a statement rather than on the
+     * transaction definition, because Hibernate can only change it on a connection it
+     * holds for the whole session, which replica routing turns off.
+     */
+    @Transactional(readOnly = true)
+    public <T> T inSingleSnapshot(Supplier<T> exports) {
+        jdbcTemplate.execute("SET TRANSACTION ISOLATION LEVEL REPEATABLE READ");
+        return exports.get();
+    }
+
+    /**
+     * Writes the table to {@code out}, which is not closed.
+     */
+    @Transactional(readOnly = true)
+    public CatalogExportResult export(CatalogTable table, CatalogExportFormat format, OutputStream out) {
+        String sql = "COPY %s (%s) TO STDOUT %s".formatted(table.tableName(), table.columns(), format.copyOptions());
+        long start = System.nanoTime();
+
+        long rows = jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+            try {
+                if (!format.isGzipped()) {
+                    return connection.unwrap(PGConnection.class).getCopyAPI().copyOut(sql, out);
+                }
+                GZIPOutputStream gzip = new GZIPOutputStream(out, GZIP_BUFFER_SIZE);
+                long copiedRows = connection.unwrap(PGConnection.class).getCopyAPI().copyOut(sql, gzip);
+                gzip.finish();
+                return copiedRows;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+
+        long millis = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+        CatalogExportResult result = new CatalogExportResult(
+                table.tableName(),
+                format.formatName(),
+                rows,
+                millis,
+                rows * 1000 / millis
+        );
+        log.info(
+                "Exported {} rows of {} as {} in {} ms ({} rows/s)",
+                result.rows(), result.table(), result.format(), result.millis(), result.rowsPerSecond()
+        );
+        return result;
+    }
+}
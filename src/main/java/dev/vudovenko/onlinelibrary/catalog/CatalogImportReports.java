@@ -0,0 +1,89 @@
+package dev.vudovenko.onlinelibrary.catalog;
+
+import jakarta.persistence.EntityNotFoundException;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVPrinter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Report files with the rows an import rejected, one CSV file per import. Reports older
+ * than {@code library.catalog.import.report-retention} are deleted whenever a new one is
+ * created, so the directory does not grow with every import.
+ */
+@Component
+public class CatalogImportReports {
+
+    static final String[] REPORT_HEADER = {"row", "reason", "name", "authorId", "pubYear", "pageNum", "cost"};
+
+    private final Path directory;
+    private final Duration retention;
+
+    public CatalogImportReports(
+            @Value("${library.catalog.import.report-directory:${java.io.tmpdir}/online-library/import-reports}")
+            Path directory,
+            @Value("${library.catalog.import.report-retention:7d}") Duration retention
+    ) {
+        this.directory = directory;
+        this.retention = retention;
+    }
+
+    public String newReportId() {
+        return UUID.randomUUID().toString();
+    }
+
+    public CSVPrinter create(String reportId) throws IOException {
+        Files.createDirectories(directory);
+        deleteExpiredReports();
+        return CSVFormat.DEFAULT
+                .builder()
+                .setHeader(REPORT_HEADER)
+                .build()
+                .print(Files.newBufferedWriter(resolve(reportId), StandardCharsets.UTF_8));
+    }
+
+    public Path find(String reportId) {
+        Path report = resolve(reportId);
+        if (!Files.isRegularFile(report)) {
+            throw new EntityNotFoundException("Not found import report by id=%s".formatted(reportId));
+        }
+        return report;
+    }
+
+    private void deleteExpiredReports() throws IOException {
+        Instant expiry = Instant.now().minus(retention);
+        try (Stream<Path> reports = Files.list(directory)) {
+            for (Path report : (Iterable<Path>) reports::iterator) {
+                try {
+                    if (Files.getLastModifiedTime(report).toInstant().isBefore(expiry)) {
+                        Files.delete(report);
+                    }
+                } catch (NoSuchFileException e) {
+                    // deleted by a concurrent import
+                }
+            }
+        }
+    }
+
+    /**
+     * Only ids this class generated are accepted, so a report id can never point
+     * outside the report directory.
+     */
+    private Path resolve(String reportId) {
+        try {
+            return directory.resolve(UUID.fromString(reportId) + ".csv");
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid report id=%s".formatted(reportId), e);
+        }
+    }
+}
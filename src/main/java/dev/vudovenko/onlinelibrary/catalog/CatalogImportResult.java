@@ -0,0 +1,14 @@
+package dev.vudovenko.onlinelibrary.catalog;
+
+/**
+ * @param reportId the rejected rows, with the reason of each, can be downloaded from
+ *                 {@code GET /catalog/imports/{reportId}/rejected}
+ */
+public record CatalogImportResult(
+
+        long rows,
+        long importedRows,
+        long rejectedRows,
+        String reportId
+) {
+}
@@ -0,0 +1,319 @@
+package dev.vudovenko.onlinelibrary.catalog;
+
+import dev.vudovenko.onlinelibrary.book.BookDto;
+import dev.vudovenko.onlinelibrary.book.SecondLevelCacheEvictor;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVPrinter;
+import org.apache.commons.csv.CSVRecord;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Imports books from a CSV upload with the columns {@code name, authorId, pubYear,
+ * pageNum, cost}, in any order.
+ * <p>
+ * Rows are read one at a time and checked against the constraints of {@link BookDto};
+ * the valid ones are streamed into a temporary staging table with {@code COPY FROM STDIN},
+ * so neither the upload nor the rows are ever held in memory. The author check and the
+ * insert into {@code books} are then one set-based statement each. Rejected rows go to
+ * a report file instead of failing the import.
+ */
+@Service
+@RequiredArgsConstructor
+public class CatalogImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogImportService.class);
+
+    static final List<String> COLUMNS = List.of("name", "authorId", "pubYear", "pageNum", "cost");
+
+    private static final CSVFormat INPUT_FORMAT = CSVFormat.DEFAULT
+            .builder()
+            .setHeader()
+            .setSkipHeaderRecord(true)
+            .setIgnoreEmptyLines(true)
+            .setTrim(true)
+            .build();
+
+    private static final int COPY_BUFFER_CHARS = 64 * 1024;
+
+    /**
+     * {@code books_seq} is {@code INCREMENT BY 50} and Hibernate's pooled optimizer takes
+     * every {@code nextval} as the last id of a block of 50 (see the allocation size of
+     * {@code BookEntity}). The import reserves whole blocks the same way instead of calling
+     * {@code nextval} per row, which would burn 50 ids for every imported book.
+     */
+    private static final int ID_BLOCK_SIZE = 50;
+
+    private static final String RESERVE_ID_BLOCKS =
+            "SELECT nextval('books_seq') FROM generate_series(1, ?)";
+
+    private static final String CREATE_STAGING_TABLE = """
+            CREATE TEMPORARY TABLE import_books (
+                row_number bigint  NOT NULL,
+                name       text    NOT NULL,
+                author_id  bigint  NOT NULL,
+                pub_year   integer NOT NULL,
+                page_num   integer NOT NULL,
+                cost       integer NOT NULL
+            ) ON COMMIT DROP
+            """;
+
+    private static final String COPY_INTO_STAGING_TABLE =
+            "COPY import_books (row_number, name, author_id, pub_year, page_num, cost) FROM STDIN (FORMAT csv)";
+
+    /**
+     * Keeps the referenced authors from being deleted until the import commits.
+     */
+    private static final String LOCK_AUTHORS = """
+            SELECT a.id
+            FROM authors a
+            WHERE a.id IN (SELECT DISTINCT s.author_id FROM import_books s)
+            FOR KEY SHARE
+            """;
+
+    private static final String REMOVE_UNKNOWN_AUTHOR_ROWS = """
+            WITH removed AS (
+                DELETE FROM import_books s
+                WHERE NOT EXISTS (SELECT 1 FROM authors a WHERE a.id = s.author_id)
+                RETURNING s.row_number, s.name, s.author_id, s.pub_year, s.page_num, s.cost
+            )
+            SELECT * FROM removed ORDER BY row_number
+            """;
+
+    /**
+     * The n-th staged row, counting from 0, gets the id at offset {@code n % 50} of the
+     * block {@code n / 50}.
+     */
+    private static final String MERGE_INTO_BOOKS = """
+            INSERT INTO books (id, name, author_id, pub_year, page_num, cost)
+            SELECT b.last_id - %1$d + 1 + s.position %% %1$d, s.name, s.author_id, s.pub_year, s.page_num, s.cost
+            FROM (SELECT i.*, row_number() OVER (ORDER BY i.row_number) - 1 AS position
+                  FROM import_books i) s
+            JOIN unnest(?::bigint[]) WITH ORDINALITY AS b(last_id, block) ON b.block - 1 = s.position / %1$d
+            ORDER BY s.position
+            """.formatted(ID_BLOCK_SIZE);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Validator validator;
+    private final CatalogImportReports reports;
+    private final SecondLevelCacheEvictor secondLevelCacheEvictor;
+
+    @Transactional
+    public CatalogImportResult importBooks(InputStream csv) throws IOException {
+        long start = System.nanoTime();
+        String reportId = reports.newReportId();
+
+        CatalogImportResult result;
+        try (CSVParser parser = INPUT_FORMAT.parse(new InputStreamReader(csv, StandardCharsets.UTF_8));
+             CSVPrinter report = reports.create(reportId)) {
+            checkHeader(parser);
+            result = jdbcTemplate.execute((ConnectionCallback<CatalogImportResult>) connection ->
+                    importBooks(connection, parser, report, reportId)
+            );
+        } catch (UncheckedIOException e) {
+            throw new IllegalArgumentException("Could not read the CSV upload: " + e.getCause().getMessage(), e);
+        }
+
+        double seconds = (System.nanoTime() - start) / 1e9;
+        log.info(
+                "Imported {} of {} rows in {}s ({} rows/s), report {}",
+                result.importedRows(), result.rows(), "%.1f".formatted(seconds),
+                Math.round(result.rows() / Math.max(seconds, 1e-3)), reportId
+        );
+        return result;
+    }
+
+    private CatalogImportResult importBooks(
+            Connection connection,
+            CSVParser parser,
+            CSVPrinter report,
+            String reportId
+    ) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(CREATE_STAGING_TABLE);
+        }
+
+        long rows = 0;
+        long rejectedRows = 0;
+        CopyIn copyIn = connection.unwrap(PGConnection.class)
+                .getCopyAPI()
+                .copyIn(COPY_INTO_STAGING_TABLE);
+        try {
+            StringBuilder buffer = new StringBuilder(COPY_BUFFER_CHARS + 1024);
+            CSVPrinter staging = CSVFormat.POSTGRESQL_CSV.print(buffer);
+            int columnCount = parser.getHeaderNames().size();
+            for (CSVRecord record : parser) {
+                long rowNumber = ++rows;
+                String rejection = stage(record, rowNumber, columnCount, staging);
+                if (rejection != null) {
+                    rejectedRows++;
+                    reject(report, rowNumber, rejection, COLUMNS.stream()
+                            .map(column -> record.isSet(column) ? record.get(column) : null)
+                            .toList());
+                }
+                if (buffer.length() >= COPY_BUFFER_CHARS) {
+                    writeToCopy(copyIn, buffer);
+                }
+            }
+            writeToCopy(copyIn, buffer);
+            copyIn.endCopy();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            if (copyIn.isActive()) {
+                copyIn.cancelCopy();
+            }
+        }
+
+        // temporary tables are never analyzed automatically
+        jdbcTemplate.execute("ANALYZE import_books");
+        List<Long> authorIds = jdbcTemplate.queryForList(LOCK_AUTHORS, Long.class);
+        secondLevelCacheEvictor.invalidateBookQueries();
+        secondLevelCacheEvictor.lockBooksOfAuthors(authorIds);
+        long[] unknownAuthorRows = {0};
+        jdbcTemplate.query(REMOVE_UNKNOWN_AUTHOR_ROWS, resultSet -> {
+            unknownAuthorRows[0]++;
+            reject(report, resultSet.getLong("row_number"), "authorId: author does not exist", List.of(
+                    resultSet.getString("name"),
+                    resultSet.getString("author_id"),
+                    resultSet.getString("pub_year"),
+                    resultSet.getString("page_num"),
+                    resultSet.getString("cost")
+            ));
+        });
+        long stagedRows = jdbcTemplate.queryForObject("SELECT count(*) FROM import_books", Long.class);
+        long importedRows = jdbcTemplate.update(
+                MERGE_INTO_BOOKS,
+                (Object) reserveIdBlocks((stagedRows + ID_BLOCK_SIZE - 1) / ID_BLOCK_SIZE)
+        );
+
+        return new CatalogImportResult(rows, importedRows, rejectedRows + unknownAuthorRows[0], reportId);
+    }
+
+    /**
+     * @return the last id of every reserved block, in the order the blocks are used
+     */
+    private Long[] reserveIdBlocks(long blocks) {
+        List<Long> lastIds = new ArrayList<>();
+        while (lastIds.size() < blocks) {
+            jdbcTemplate.queryForList(RESERVE_ID_BLOCKS, Long.class, blocks - lastIds.size())
+                    .stream()
+                    // the very first value of the sequence is 1, which Hibernate takes
+                    // as the start of a block, not as its end
+                    .filter(lastId -> lastId >= ID_BLOCK_SIZE)
+                    .forEach(lastIds::add);
+        }
+        return lastIds.toArray(Long[]::new);
+    }
+
+    private static void checkHeader(CSVParser parser) {
+        Set<String> missingColumns = COLUMNS.stream()
+                .filter(column -> !parser.getHeaderMap().containsKey(column))
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        if (!missingColumns.isEmpty()) {
+            throw new IllegalArgumentException(
+                    "CSV header misses the columns %s, expected %s".formatted(missingColumns, COLUMNS)
+            );
+        }
+    }
+
+    /**
+     * @return why the row is rejected, or {@code null} if it has been staged
+     */
+    private String stage(
+            CSVRecord record,
+            long rowNumber,
+            int columnCount,
+            CSVPrinter staging
+    ) throws IOException {
+        if (record.size() != columnCount) {
+            return "expected %d columns, got %d".formatted(columnCount, record.size());
+        }
+        BookDto book;
+        try {
+            book = new BookDto(
+                    null,
+                    record.get("name"),
+                    parseLong(record.get("authorId")),
+                    parseInteger(record.get("pubYear")),
+                    parseInteger(record.get("pageNum")),
+                    parseInteger(record.get("cost"))
+            );
+        } catch (NumberFormatException e) {
+            return "not a number: " + e.getMessage();
+        }
+
+        Set<ConstraintViolation<BookDto>> violations = validator.validate(book);
+        if (!violations.isEmpty()) {
+            return violations.stream()
+                    .sorted(Comparator.comparing(violation -> violation.getPropertyPath().toString()))
+                    .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                    .collect(Collectors.joining(", "));
+        }
+
+        staging.printRecord(
+                rowNumber,
+                book.name(),
+                book.authorId(),
+                book.publicationYear(),
+                book.pageNumber(),
+                book.cost()
+        );
+        return null;
+    }
+
+    private static Long parseLong(String value) {
+        return value.isEmpty() ? null : Long.valueOf(value);
+    }
+
+    private static Integer parseInteger(String value) {
+        return value.isEmpty() ? null : Integer.valueOf(value);
+    }
+
+    private static void writeToCopy(CopyIn copyIn, StringBuilder buffer) throws SQLException {
+        if (buffer.isEmpty()) {
+            return;
+        }
+        byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+        copyIn.writeToCopy(bytes, 0, bytes.length);
+        buffer.setLength(0);
+    }
+
+    private static void reject(CSVPrinter report, long rowNumber, String reason, List<String> values) {
+        try {
+            report.print(rowNumber);
+            report.print(reason);
+            for (String value : values) {
+                report.print(value);
+            }
+            report.println();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package dev.vudovenko.onlinelibrary.catalog;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+import java.nio.file.Path;
+
+/**
+ * Nightly catalog snapshots, enabled by setting {@code library.catalog.export.snapshot-directory}.
+ */
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty("library.catalog.export.snapshot-directory")
+public class CatalogSnapshotConfiguration {
+
+    @Bean
+    public CatalogSnapshotJob catalogSnapshotJob(
+            CatalogExportService exportService,
+            @Value("${library.catalog.export.snapshot-directory}") Path directory,
+            @Value("${library.catalog.export.snapshot-format:binary}") String format
+    ) {
+        return new CatalogSnapshotJob(exportService, directory, CatalogExportFormat.of(format));
+    }
+}
@@ -0,0 +1,92 @@
+package dev.vudovenko.onlinelibrary.catalog;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes every {@link CatalogTable} into a new timestamped directory below
+ * {@code library.catalog.export.snapshot-directory}. All tables are read from the
+ * same database snapshot, and a file only appears once it is complete, so a reader
+ * never picks up half a table.
+ */
+public class CatalogSnapshotJob {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogSnapshotJob.class);
+
+    private static final DateTimeFormatter SNAPSHOT_NAME = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss");
+    private static final int FILE_BUFFER_SIZE = 256 * 1024;
+
+    private final CatalogExportService exportService;
+    private final Path directory;
+    private final CatalogExportFormat format;
+
+    public CatalogSnapshotJob(CatalogExportService exportService, Path directory, CatalogExportFormat format) {
+        this.exportService = exportService;
+        this.directory = directory;
+        this.format = format;
+    }
+
+    @Scheduled(cron = "${library.catalog.export.snapshot-cron:0 0 2 * * *}")
+    public void takeScheduledSnapshot() {
+        try {
+            takeSnapshot();
+        } catch (IOException | RuntimeException e) {
+            log.error("Catalog snapshot failed", e);
+        }
+    }
+
+    public List<CatalogExportResult> takeSnapshot() throws IOException {
+        Path snapshotDirectory = directory.resolve(SNAPSHOT_NAME.format(LocalDateTime.now()));
+        Files.createDirectories(snapshotDirectory);
+
+        List<CatalogExportResult> results;
+        try {
+            results = exportService.inSingleSnapshot(() -> {
+                List<CatalogExportResult> tableResults = new ArrayList<>();
+                for (CatalogTable table : CatalogTable.values()) {
+                    tableResults.add(exportTo(table, snapshotDirectory));
+                }
+                return tableResults;
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        log.info("Catalog snapshot written to {}: {}", snapshotDirectory, results);
+        return results;
+    }
+
+    /**
+     * Runs inside the snapshot transaction, which can not throw checked exceptions.
+     */
+    private CatalogExportResult exportTo(CatalogTable table, Path snapshotDirectory) {
+        Path target = snapshotDirectory.resolve(format.fileName(table));
+        Path partial = snapshotDirectory.resolve(target.getFileName() + ".part");
+
+        try {
+            CatalogExportResult result;
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(partial), FILE_BUFFER_SIZE)) {
+                result = exportService.export(table, format, out);
+            } catch (IOException | RuntimeException e) {
+                Files.deleteIfExists(partial);
+                throw e;
+            }
+            Files.move(partial, target, StandardCopyOption.ATOMIC_MOVE);
+            return result;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
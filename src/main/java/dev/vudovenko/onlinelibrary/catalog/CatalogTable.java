@@ -0,0 +1,43 @@
+package dev.vudovenko.onlinelibrary.catalog;
+
+import java.util.Arrays;
+
+/**
+ * The tables that can be exported, with their exported columns. Only these names ever
+ * reach a {@code COPY} statement.
+ */
+public enum CatalogTable {
+
+    BOOKS("books", "id, name, author_id, pub_year, page_num, cost, version, updated_at"),
+    AUTHORS("authors", "id, name, birth_year, version");
+
+    private final String tableName;
+    private final String columns;
+
+    CatalogTable(String tableName, String columns) {
+        this.tableName = tableName;
+        this.columns = columns;
+    }
+
+    public String tableName() {
+        return tableName;
+    }
+
+    String columns() {
+        return columns;
+    }
+
+    public static CatalogTable of(String tableName) {
+        return Arrays.stream(values())
+                .filter(table -> table.tableName.equals(tableName))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException(
+                        "Unknown table '%s', expected one of %s".formatted(
+                                tableName,
+                                Arrays.stream(values())
+                                        .map(CatalogTable::tableName)
+                                        .toList()
+                        )
+                ));
+    }
+}
@@ -0,0 +1,44 @@
+package dev.vudovenko.onlinelibrary.datasource;
+
+import java.util.function.Supplier;
+
+/**
+ * Marks the current request as one that has to read from the primary, because its
+ * client wrote shortly before and the replica might not have the write yet.
+ */
+public final class ReadYourWritesContext {
+
+    private static final ThreadLocal<Boolean> PINNED_TO_PRIMARY = new ThreadLocal<>();
+
+    private ReadYourWritesContext() {
+    }
+
+    public static void pinToPrimary() {
+        PINNED_TO_PRIMARY.set(Boolean.TRUE);
+    }
+
+    public static boolean isPinnedToPrimary() {
+        return PINNED_TO_PRIMARY.get() != null;
+    }
+
+    public static void clear() {
+        PINNED_TO_PRIMARY.remove();
+    }
+
+    /**
+     * Runs {@code read} against the primary whatever the request is pinned to. Reads whose
+     * result is kept for all clients need this: a row read from a lagging replica would
+     * outlive the lag in the cache.
+     */
+    public static <T> T readFromPrimary(Supplier<T> read) {
+        if (isPinnedToPrimary()) {
+            return read.get();
+        }
+        pinToPrimary();
+        try {
+            return read.get();
+        } finally {
+            clear();
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package dev.vudovenko.onlinelibrary.datasource;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.orm.jpa.vendor.HibernateJpaDialect;
+import org.springframework.transaction.TransactionDefinition;
+
+import java.sql.SQLException;
+
+/**
+ * Lets transactions that may be routed to the replica read the second-level cache but
+ * never put into it. What they read can be older than the last write on the primary,
+ * and Hibernate's update timestamps can not tell: the eviction of that write happened
+ * before the stale read, so the stale entry would be served for as long as it lives.
+ * <p>
+ * Read-only transactions of a request pinned to the primary fill the cache as usual.
+ */
+class ReplicaCacheModeJpaDialect extends HibernateJpaDialect {
+
+    @Override
+    public Object beginTransaction(EntityManager entityManager, TransactionDefinition definition)
+            throws PersistenceException, SQLException {
+        Object transactionData = super.beginTransaction(entityManager, definition);
+        if (!definition.isReadOnly() || ReadYourWritesContext.isPinnedToPrimary()) {
+            return transactionData;
+        }
+        Session session = entityManager.unwrap(Session.class);
+        CacheMode previousCacheMode = session.getCacheMode();
+        session.setCacheMode(CacheMode.GET);
+        return new ReplicaTransactionData(transactionData, session, previousCacheMode);
+    }
+
+    @Override
+    public void cleanupTransaction(Object transactionData) {
+        if (transactionData instanceof ReplicaTransactionData replicaTransactionData) {
+            replicaTransactionData.session().setCacheMode(replicaTransactionData.previousCacheMode());
+            super.cleanupTransaction(replicaTransactionData.transactionData());
+            return;
+        }
+        super.cleanupTransaction(transactionData);
+    }
+
+    private record ReplicaTransactionData(
+
+            Object transactionData,
+            Session session,
+            CacheMode previousCacheMode
+    ) {
+    }
+}
@@ -0,0 +1,124 @@
+package dev.vudovenko.onlinelibrary.datasource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Polls how far the replica is behind the primary. The replica is only used while the
+ * last check succeeded and the lag was within {@code maxLag}; until the replica has been
+ * seen to catch up, or when either server can not be reached, reads go to the primary.
+ * <p>
+ * The lag is measured against the primary, not against what the replica has received:
+ * every check remembers the current WAL position of the primary and when it was seen,
+ * and the lag is the age of the oldest remembered position the replica has not replayed
+ * yet. A replica whose WAL receiver stalled or lost the connection therefore falls behind
+ * as the primary moves on, although it has replayed everything it received.
+ */
+public class ReplicaLagMonitor implements InitializingBean {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    private static final String CURRENT_WAL_POSITION_QUERY
+            = "SELECT pg_wal_lsn_diff(pg_current_wal_lsn(), '0/0')::bigint";
+    /**
+     * {@code NULL} on a server that is not in recovery, which does not follow the primary.
+     */
+    private static final String REPLAYED_WAL_POSITION_QUERY
+            = "SELECT pg_wal_lsn_diff(pg_last_wal_replay_lsn(), '0/0')::bigint";
+    /**
+     * Bounds the memory of a replica that stopped replaying; the oldest position, which
+     * determines the lag, is always kept.
+     */
+    private static final int MAX_REMEMBERED_POSITIONS = 3600;
+
+    private final JdbcTemplate primary;
+    private final JdbcTemplate replica;
+    private final Duration maxLag;
+    private final Deque<WalPosition> unreplayedPositions = new ArrayDeque<>();
+    private boolean caughtUp;
+    private volatile boolean replicaUsable;
+
+    public ReplicaLagMonitor(DataSource primaryDataSource, DataSource replicaDataSource, Duration maxLag) {
+        int queryTimeoutSeconds = (int) Math.max(1, maxLag.toSeconds());
+        this.primary = new JdbcTemplate(primaryDataSource);
+        this.primary.setQueryTimeout(queryTimeoutSeconds);
+        this.replica = new JdbcTemplate(replicaDataSource);
+        this.replica.setQueryTimeout(queryTimeoutSeconds);
+        this.maxLag = maxLag;
+    }
+
+    public boolean isReplicaUsable() {
+        return replicaUsable;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        checkLag();
+    }
+
+    @Scheduled(fixedDelayString = "${library.datasource.replica.lag-check-interval:1s}")
+    public synchronized void checkLag() {
+        boolean usable;
+        try {
+            Duration lag = measureLag();
+            usable = lag != null && lag.compareTo(maxLag) <= 0;
+            if (!usable && replicaUsable) {
+                log.warn("Replica is {} behind, reading from the primary", lag != null ? lag : "an unknown time");
+            }
+        } catch (DataAccessException e) {
+            usable = false;
+            if (replicaUsable) {
+                log.warn("Replica lag can not be measured, reading from the primary: {}", e.getMessage());
+            }
+        }
+        replicaUsable = usable;
+    }
+
+    /**
+     * @return how long ago the primary was at the oldest position the replica has not
+     * replayed yet, or {@code null} if that is not known: the replica is not in recovery
+     * or has not caught up with any position seen so far
+     */
+    Duration measureLag() {
+        long now = System.nanoTime();
+        Long primaryPosition = primary.queryForObject(CURRENT_WAL_POSITION_QUERY, Long.class);
+        WalPosition newest = unreplayedPositions.peekLast();
+        if ((newest == null || newest.position() < primaryPosition)
+                && unreplayedPositions.size() < MAX_REMEMBERED_POSITIONS) {
+            unreplayedPositions.addLast(new WalPosition(primaryPosition, now));
+        }
+
+        Long replayedPosition = replica.queryForObject(REPLAYED_WAL_POSITION_QUERY, Long.class);
+        if (replayedPosition == null) {
+            unreplayedPositions.clear();
+            caughtUp = false;
+            return null;
+        }
+        while (!unreplayedPositions.isEmpty() && unreplayedPositions.peekFirst().position() <= replayedPosition) {
+            unreplayedPositions.removeFirst();
+            caughtUp = true;
+        }
+        if (unreplayedPositions.isEmpty()) {
+            return Duration.ZERO;
+        }
+        return caughtUp
+                ? Duration.ofNanos(now - unreplayedPositions.peekFirst().seenAtNanos())
+                : null;
+    }
+
+    private record WalPosition(
+
+            long position,
+            long seenAtNanos
+    ) {
+    }
+}
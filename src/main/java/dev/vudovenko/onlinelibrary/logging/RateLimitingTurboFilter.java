@@ -0,0 +1,63 @@
+package dev.vudovenko.onlinelibrary.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Lets through at most {@code maxEventsPerSecond} events at or below {@code level}
+ * from loggers under {@code loggerPrefix}; the rest of each second is dropped.
+ */
+public class RateLimitingTurboFilter extends TurboFilter {
+
+    private final AtomicLong currentSecond = new AtomicLong();
+    private final AtomicLong eventsInSecond = new AtomicLong();
+    private String loggerPrefix = "";
+    private Level level = Level.WARN;
+    private long maxEventsPerSecond = 10;
+    private final LongSupplier currentTimeMillis;
+
+    public RateLimitingTurboFilter() {
+        this(System::currentTimeMillis);
+    }
+
+    RateLimitingTurboFilter(LongSupplier currentTimeMillis) {
+        this.currentTimeMillis = currentTimeMillis;
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level eventLevel,
+                              String format, Object[] params, Throwable t) {
+        if (!isStarted()
+                || format == null
+                || eventLevel.toInt() > level.toInt()
+                || !logger.getName().startsWith(loggerPrefix)) {
+            return FilterReply.NEUTRAL;
+        }
+        long second = currentTimeMillis.getAsLong() / 1000;
+        long seenSecond = currentSecond.get();
+        if (second != seenSecond && currentSecond.compareAndSet(seenSecond, second)) {
+            eventsInSecond.set(0);
+        }
+        return eventsInSecond.incrementAndGet() <= maxEventsPerSecond
+                ? FilterReply.NEUTRAL
+                : FilterReply.DENY;
+    }
+
+    public void setLoggerPrefix(String loggerPrefix) {
+        this.loggerPrefix = loggerPrefix;
+    }
+
+    public void setLevel(String level) {
+        this.level = Level.toLevel(level, Level.WARN);
+    }
+
+    public void setMaxEventsPerSecond(long maxEventsPerSecond) {
+        this.maxEventsPerSecond = maxEventsPerSecond;
+    }
+}
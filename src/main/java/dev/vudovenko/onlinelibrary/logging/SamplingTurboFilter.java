@@ -0,0 +1,55 @@
+package dev.vudovenko.onlinelibrary.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lets through one of every {@code sampleRate} events at or below {@code level}
+ * from loggers under {@code loggerPrefix} whose name ends with {@code loggerSuffix}.
+ * The decision is taken before the message is formatted, so dropped events cost
+ * a counter increment.
+ */
+public class SamplingTurboFilter extends TurboFilter {
+
+    private final AtomicLong counter = new AtomicLong();
+    private String loggerPrefix = "";
+    private String loggerSuffix = "";
+    private Level level = Level.INFO;
+    private int sampleRate = 100;
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level eventLevel,
+                              String format, Object[] params, Throwable t) {
+        if (!isStarted()
+                || format == null
+                || eventLevel.toInt() > level.toInt()
+                || !logger.getName().startsWith(loggerPrefix)
+                || !logger.getName().endsWith(loggerSuffix)) {
+            return FilterReply.NEUTRAL;
+        }
+        return counter.getAndIncrement() % sampleRate == 0
+                ? FilterReply.NEUTRAL
+                : FilterReply.DENY;
+    }
+
+    public void setLoggerPrefix(String loggerPrefix) {
+        this.loggerPrefix = loggerPrefix;
+    }
+
+    public void setLoggerSuffix(String loggerSuffix) {
+        this.loggerSuffix = loggerSuffix;
+    }
+
+    public void setLevel(String level) {
+        this.level = Level.toLevel(level, Level.INFO);
+    }
+
+    public void setSampleRate(int sampleRate) {
+        this.sampleRate = Math.max(1, sampleRate);
+    }
+}
@@ -0,0 +1,97 @@
+package dev.vudovenko.onlinelibrary.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import org.hibernate.SessionEventListener;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Counts the JDBC work of one Hibernate session and records it when the session ends.
+ * With open-in-view a session spans one request, so the numbers are per request and
+ * tagged with the matched URI pattern.
+ * <p>
+ * Registered through {@code hibernate.session.events.auto}, which creates one instance per session.
+ */
+public class HibernateSessionMetrics implements SessionEventListener {
+
+    private static final String NO_URI = "none";
+
+    private int statements;
+    private int batches;
+    private int flushes;
+    private int flushedEntities;
+    private long executionStart;
+    private long executionNanos;
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        executionStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        statements++;
+        executionNanos += System.nanoTime() - executionStart;
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        executionStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        batches++;
+        executionNanos += System.nanoTime() - executionStart;
+    }
+
+    @Override
+    public void flushEnd(int numberOfEntities, int numberOfCollections) {
+        flushes++;
+        flushedEntities += numberOfEntities;
+    }
+
+    @Override
+    public void end() {
+        String uri = currentUri();
+        summary("hibernate.session.statements", "JDBC statements executed per session", uri)
+                .record(statements);
+        summary("hibernate.session.batches", "JDBC batches executed per session", uri)
+                .record(batches);
+        summary("hibernate.session.flushes", "Flushes per session", uri)
+                .record(flushes);
+        summary("hibernate.session.flushed.entities", "Entities processed by flushes per session", uri)
+                .record(flushedEntities);
+        Timer.builder("hibernate.session.jdbc.execution")
+                .description("Time spent executing JDBC statements per session")
+                .tag("uri", uri)
+                .register(Metrics.globalRegistry)
+                .record(executionNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private static DistributionSummary summary(String name, String description, String uri) {
+        return DistributionSummary.builder(name)
+                .description(description)
+                .tag("uri", uri)
+                .register(Metrics.globalRegistry);
+    }
+
+    static String currentUri() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return NO_URI;
+        }
+        Object pattern = attributes.getAttribute(
+                HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE,
+                RequestAttributes.SCOPE_REQUEST
+        );
+        return pattern != null
+                ? pattern.toString()
+                : NO_URI;
+    }
+}
@@ -0,0 +1,29 @@
+package dev.vudovenko.onlinelibrary.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+@Configuration
+@RequiredArgsConstructor
+public class MetricsConfiguration implements WebMvcConfigurer {
+
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.replaceAll(this::timed);
+    }
+
+    private HttpMessageConverter<?> timed(HttpMessageConverter<?> converter) {
+        if (converter instanceof AbstractJackson2HttpMessageConverter jacksonConverter) {
+            return new TimedHttpMessageConverter(jacksonConverter, meterRegistry);
+        }
+        return converter;
+    }
+}
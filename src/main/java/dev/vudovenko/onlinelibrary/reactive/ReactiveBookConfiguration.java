@@ -0,0 +1,84 @@
+package dev.vudovenko.onlinelibrary.reactive;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.web.reactive.function.server.HandlerStrategies;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+/**
+ * The {@code reactive} profile: a non-blocking copy of the book read endpoints on
+ * {@code library.reactive.port}. It has its own R2DBC pool; the R2DBC auto-configuration
+ * stays excluded, so the JPA transaction manager remains the only one.
+ */
+@Configuration
+@Profile("reactive")
+public class ReactiveBookConfiguration {
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionPool reactiveConnectionPool(
+            @Value("${library.reactive.r2dbc.url}") String url,
+            @Value("${library.reactive.r2dbc.username:${spring.datasource.username}}") String username,
+            @Value("${library.reactive.r2dbc.password:${spring.datasource.password}}") String password,
+            @Value("${library.reactive.r2dbc.max-size:20}") int maxSize
+    ) {
+        ConnectionFactoryOptions options = ConnectionFactoryOptions.parse(url)
+                .mutate()
+                .option(ConnectionFactoryOptions.USER, username)
+                .option(ConnectionFactoryOptions.PASSWORD, password)
+                .build();
+
+        return new ConnectionPool(
+                ConnectionPoolConfiguration.builder(ConnectionFactories.get(options))
+                        .name("reactive")
+                        .initialSize(0)
+                        .maxSize(maxSize)
+                        .build()
+        );
+    }
+
+    @Bean
+    public DatabaseClient reactiveDatabaseClient(ConnectionPool reactiveConnectionPool) {
+        return DatabaseClient.create(reactiveConnectionPool);
+    }
+
+    @Bean
+    public RouterFunction<ServerResponse> reactiveBookRoutes(ReactiveBookHandler handler) {
+        return RouterFunctions.route()
+                .GET("/books/{id}", handler::getBookById)
+                .GET("/books", handler::getAllBooks)
+                .build();
+    }
+
+    @Bean
+    public ReactiveBookServer reactiveBookServer(
+            RouterFunction<ServerResponse> reactiveBookRoutes,
+            ObjectMapper objectMapper,
+            @Value("${library.reactive.port:8081}") int port,
+            @Value("${library.reactive.event-loop-threads:4}") int eventLoopThreads
+    ) {
+        HandlerStrategies strategies = HandlerStrategies.builder()
+                .codecs(codecs -> {
+                    codecs.defaultCodecs().jackson2JsonEncoder(new Jackson2JsonEncoder(objectMapper));
+                    codecs.defaultCodecs().jackson2JsonDecoder(new Jackson2JsonDecoder(objectMapper));
+                })
+                .build();
+
+        return new ReactiveBookServer(
+                RouterFunctions.toHttpHandler(reactiveBookRoutes, strategies),
+                port,
+                eventLoopThreads
+        );
+    }
+}
@@ -0,0 +1,121 @@
+package dev.vudovenko.onlinelibrary.reactive;
+
+import dev.vudovenko.onlinelibrary.book.BookDto;
+import dev.vudovenko.onlinelibrary.book.BookDtoConverter;
+import dev.vudovenko.onlinelibrary.book.BookSearchFilter;
+import dev.vudovenko.onlinelibrary.book.VersionFingerprint;
+import dev.vudovenko.onlinelibrary.web.ServerErrorDto;
+import jakarta.persistence.EntityNotFoundException;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.BindException;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.server.ServerWebInputException;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * {@code GET /books} and {@code GET /books/{id}} of the reactive stack, with the
+ * parameters, status codes, validators and error bodies of {@code BookController}.
+ */
+@Component
+@Profile("reactive")
+@RequiredArgsConstructor
+public class ReactiveBookHandler {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ReactiveBookHandler.class);
+
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private final ReactiveBookService bookService;
+    private final BookDtoConverter dtoConverter;
+    private final Validator validator;
+
+    public Mono<ServerResponse> getAllBooks(ServerRequest request) {
+        return request.bind(BookSearchFilter.class)
+                .doOnNext(this::validate)
+                .flatMap(bookService::searchAllBooks)
+                .flatMap(slice -> {
+                    String eTag = VersionFingerprint.weakETag(slice.fingerprint());
+                    // functional endpoints do not evaluate If-None-Match on their own
+                    return request.checkNotModified(eTag)
+                            .switchIfEmpty(Mono.defer(() -> {
+                                List<BookDto> books = slice.books()
+                                        .stream()
+                                        .map(dtoConverter::toDto)
+                                        .toList();
+
+                                ServerResponse.BodyBuilder response = ServerResponse.ok()
+                                        .eTag(eTag)
+                                        .varyBy(HttpHeaders.ACCEPT);
+                                if (slice.nextCursor() != null) {
+                                    response.header(NEXT_CURSOR_HEADER, slice.nextCursor());
+                                }
+                                return response.bodyValue(books);
+                            }));
+                })
+                .onErrorResume(this::toErrorResponse);
+    }
+
+    public Mono<ServerResponse> getBookById(ServerRequest request) {
+        return Mono.fromCallable(() -> Long.valueOf(request.pathVariable("id")))
+                .onErrorMap(NumberFormatException.class, e -> new IllegalArgumentException(
+                        "Invalid book id=%s".formatted(request.pathVariable("id")), e
+                ))
+                .flatMap(bookService::findById)
+                .flatMap(book -> request.checkNotModified(book.updatedAt(), eTag(book.version()))
+                        .switchIfEmpty(Mono.defer(() -> ServerResponse.ok()
+                                .eTag(eTag(book.version()))
+                                .lastModified(book.updatedAt())
+                                .varyBy(HttpHeaders.ACCEPT)
+                                .bodyValue(dtoConverter.toDto(book.book())))))
+                .onErrorResume(this::toErrorResponse);
+    }
+
+    private static String eTag(long version) {
+        return "\"" + version + "\"";
+    }
+
+    private void validate(BookSearchFilter bookSearchFilter) {
+        Set<ConstraintViolation<BookSearchFilter>> violations = validator.validate(bookSearchFilter);
+        if (!violations.isEmpty()) {
+            throw new IllegalArgumentException(
+                    violations.stream()
+                            .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                            .collect(Collectors.joining(", "))
+            );
+        }
+    }
+
+    private Mono<ServerResponse> toErrorResponse(Throwable e) {
+        if (e instanceof IllegalArgumentException
+                || e instanceof BindException
+                || e instanceof ServerWebInputException) {
+            LOG.warn("Got validation exception: {}", e.getMessage());
+            return error(HttpStatus.BAD_REQUEST, "Ошибка валидации запроса", e);
+        }
+        if (e instanceof EntityNotFoundException) {
+            LOG.warn("Got exception: {}", e.getMessage());
+            return error(HttpStatus.NOT_FOUND, "Сущность не найдена", e);
+        }
+        LOG.error("Server error", e);
+        return error(HttpStatus.INTERNAL_SERVER_ERROR, "Server error", e);
+    }
+
+    private static Mono<ServerResponse> error(HttpStatus status, String message, Throwable e) {
+        return ServerResponse.status(status)
+                .bodyValue(new ServerErrorDto(message, e.getMessage(), LocalDateTime.now()));
+    }
+}
@@ -0,0 +1,64 @@
+package dev.vudovenko.onlinelibrary.reactive;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.http.server.reactive.HttpHandler;
+import org.springframework.http.server.reactive.ReactorHttpHandlerAdapter;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.resources.LoopResources;
+
+/**
+ * Reactor Netty server of the reactive read API, next to the servlet container of the
+ * rest of the application. All requests are served by {@code eventLoopThreads} threads,
+ * so none of them may block.
+ */
+public class ReactiveBookServer implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(ReactiveBookServer.class);
+
+    private final HttpHandler httpHandler;
+    private final int port;
+    private final int eventLoopThreads;
+
+    private volatile LoopResources loopResources;
+    private volatile DisposableServer server;
+
+    public ReactiveBookServer(HttpHandler httpHandler, int port, int eventLoopThreads) {
+        this.httpHandler = httpHandler;
+        this.port = port;
+        this.eventLoopThreads = eventLoopThreads;
+    }
+
+    /**
+     * @return the bound port, which differs from the configured one when that was 0
+     */
+    public int getPort() {
+        return server.port();
+    }
+
+    @Override
+    public void start() {
+        loopResources = LoopResources.create("reactive-http", eventLoopThreads, true);
+        server = HttpServer.create()
+                .port(port)
+                .runOn(loopResources)
+                .compress(true)
+                .handle(new ReactorHttpHandlerAdapter(httpHandler))
+                .bindNow();
+        log.info("Reactive book API started on port {} with {} event loop threads", server.port(), eventLoopThreads);
+    }
+
+    @Override
+    public void stop() {
+        server.disposeNow();
+        loopResources.disposeLater().block();
+        server = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return server != null;
+    }
+}
@@ -0,0 +1,121 @@
+package dev.vudovenko.onlinelibrary.reactive;
+
+import dev.vudovenko.onlinelibrary.book.Book;
+import dev.vudovenko.onlinelibrary.book.BookCursorCodec;
+import dev.vudovenko.onlinelibrary.book.BookSearchFilter;
+import dev.vudovenko.onlinelibrary.book.BookSearchQuery;
+import dev.vudovenko.onlinelibrary.book.BookSlice;
+import dev.vudovenko.onlinelibrary.book.VersionFingerprint;
+import dev.vudovenko.onlinelibrary.book.VersionedBook;
+import io.r2dbc.spi.Readable;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * The book reads of {@code BookService} over R2DBC. It runs the same {@link BookSearchQuery}
+ * statements with the same paging rules, but maps rows straight to {@link Book}, since
+ * there is no persistence context on this side.
+ */
+@Service
+@Profile("reactive")
+@RequiredArgsConstructor
+public class ReactiveBookService {
+
+    private static final String FIND_BY_ID_SQL = """
+            SELECT b.id, b.name, b.author_id, b.pub_year, b.page_num, b.cost, b.version, b.updated_at
+            FROM books b
+            WHERE b.id = :id
+            """;
+
+    private final DatabaseClient databaseClient;
+    private final BookCursorCodec cursorCodec;
+
+    public Mono<BookSlice> searchAllBooks(BookSearchFilter bookSearchFilter) {
+        return Mono.defer(() -> {
+            int pageSize = bookSearchFilter.pageSizeOrDefault();
+            if (bookSearchFilter.isCursorMode()) {
+                return searchBooksByCursor(bookSearchFilter, pageSize);
+            }
+            int pageNumber = bookSearchFilter.pageNumberOrDefault();
+
+            return search(BookSearchQuery.page(bookSearchFilter, pageSize, (long) pageNumber * pageSize))
+                    .collectList()
+                    .map(books -> toSlice(books, null));
+        });
+    }
+
+    private Mono<BookSlice> searchBooksByCursor(
+            BookSearchFilter bookSearchFilter,
+            int pageSize
+    ) {
+        long afterId = cursorCodec.decode(bookSearchFilter.cursor());
+
+        // one extra row tells us whether there is a next page at all
+        return search(BookSearchQuery.after(bookSearchFilter, afterId, pageSize + 1))
+                .collectList()
+                .map(books -> {
+                    if (books.size() <= pageSize) {
+                        return toSlice(books, null);
+                    }
+                    List<VersionedBook> page = books.subList(0, pageSize);
+                    return toSlice(
+                            page,
+                            cursorCodec.encode(page.get(pageSize - 1).book().id())
+                    );
+                });
+    }
+
+    public Mono<VersionedBook> findById(Long id) {
+        return databaseClient.sql(FIND_BY_ID_SQL)
+                .bind("id", id)
+                .map(ReactiveBookService::toRow)
+                .one()
+                .switchIfEmpty(Mono.error(() -> new EntityNotFoundException(
+                        "No found book by id=%s".formatted(id)
+                )));
+    }
+
+    private Flux<VersionedBook> search(BookSearchQuery query) {
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(query.sql());
+        for (var parameter : query.parameters().entrySet()) {
+            spec = spec.bind(parameter.getKey(), parameter.getValue());
+        }
+        return spec.map(ReactiveBookService::toRow).all();
+    }
+
+    private static BookSlice toSlice(List<VersionedBook> rows, String nextCursor) {
+        VersionFingerprint fingerprint = new VersionFingerprint();
+        rows.forEach(row -> fingerprint.add(row.book().id(), row.version()));
+
+        return new BookSlice(
+                rows.stream()
+                        .map(VersionedBook::book)
+                        .toList(),
+                nextCursor,
+                fingerprint.build()
+        );
+    }
+
+    private static VersionedBook toRow(Readable row) {
+        return new VersionedBook(
+                new Book(
+                        row.get("id", Long.class),
+                        row.get("name", String.class),
+                        row.get("author_id", Long.class),
+                        row.get("pub_year", Integer.class),
+                        row.get("page_num", Integer.class),
+                        row.get("cost", Integer.class)
+                ),
+                row.get("version", Long.class),
+                row.get("updated_at", Instant.class)
+        );
+    }
+}
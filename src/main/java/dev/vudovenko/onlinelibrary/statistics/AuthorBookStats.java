@@ -0,0 +1,11 @@
+package dev.vudovenko.onlinelibrary.statistics;
+
+public record AuthorBookStats(
+
+        Long authorId,
+        long bookCount,
+        Double averageCost,
+        Integer minCost,
+        Integer maxCost
+) {
+}
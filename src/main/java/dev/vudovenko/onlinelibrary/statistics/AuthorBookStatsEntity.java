@@ -0,0 +1,36 @@
+package dev.vudovenko.onlinelibrary.statistics;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+/**
+ * Maintained by the {@code books_stats_*} triggers, never written by the application.
+ */
+@Getter
+@NoArgsConstructor
+@Immutable
+@Entity
+@Table(name = "author_book_stats")
+public class AuthorBookStatsEntity {
+
+    @Id
+    @Column(name = "author_id")
+    private Long authorId;
+
+    @Column(name = "book_count", nullable = false)
+    private Long bookCount;
+
+    @Column(name = "total_cost", nullable = false)
+    private Long totalCost;
+
+    @Column(name = "min_cost", nullable = false)
+    private Integer minCost;
+
+    @Column(name = "max_cost", nullable = false)
+    private Integer maxCost;
+}
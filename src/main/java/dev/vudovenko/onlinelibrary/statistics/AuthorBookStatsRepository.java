@@ -0,0 +1,37 @@
+package dev.vudovenko.onlinelibrary.statistics;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
+
+public interface AuthorBookStatsRepository extends JpaRepository<AuthorBookStatsEntity, Long> {
+
+    @Query("SELECT s FROM AuthorBookStatsEntity s ORDER BY s.authorId")
+    List<AuthorBookStatsEntity> findStatsPage(Pageable pageable);
+
+    @Query(
+            value = """
+                    WITH recomputed AS (
+                        SELECT author_id, count(*) AS book_count, sum(cost) AS total_cost,
+                               min(cost) AS min_cost, max(cost) AS max_cost
+                        FROM books
+                        WHERE author_id IS NOT NULL
+                        GROUP BY author_id
+                    ),
+                    maintained AS (
+                        SELECT author_id, book_count, total_cost, min_cost, max_cost
+                        FROM author_book_stats
+                    )
+                    SELECT count(*)
+                    FROM (
+                        (SELECT * FROM maintained EXCEPT SELECT * FROM recomputed)
+                        UNION ALL
+                        (SELECT * FROM recomputed EXCEPT SELECT * FROM maintained)
+                    ) mismatches
+                    """,
+            nativeQuery = true
+    )
+    long countMismatchesWithRecompute();
+}
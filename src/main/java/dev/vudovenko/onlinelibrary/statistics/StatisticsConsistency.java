@@ -0,0 +1,16 @@
+package dev.vudovenko.onlinelibrary.statistics;
+
+/**
+ * Number of rows that differ between the maintained aggregates and a full recompute
+ * from {@code books}, counting rows missing on either side.
+ */
+public record StatisticsConsistency(
+
+        long authorMismatches,
+        long yearMismatches
+) {
+
+    public boolean isConsistent() {
+        return authorMismatches == 0 && yearMismatches == 0;
+    }
+}
@@ -0,0 +1,23 @@
+package dev.vudovenko.onlinelibrary.statistics;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * {@code GET /actuator/statsconsistency}. The check recomputes every aggregate, so it is
+ * served with the other operational endpoints instead of the public API.
+ */
+@Component
+@Endpoint(id = "statsconsistency")
+@RequiredArgsConstructor
+public class StatisticsConsistencyEndpoint {
+
+    private final StatisticsService statisticsService;
+
+    @ReadOperation
+    public StatisticsConsistency checkConsistency() {
+        return statisticsService.checkConsistency();
+    }
+}
@@ -0,0 +1,38 @@
+package dev.vudovenko.onlinelibrary.statistics;
+
+import dev.vudovenko.onlinelibrary.author.AuthorSearchFilter;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/statistics")
+@RequiredArgsConstructor
+public class StatisticsController {
+
+    private final StatisticsService statisticsService;
+
+    @GetMapping("/authors")
+    public List<AuthorBookStats> getAuthorsStats(
+            @Valid AuthorSearchFilter authorSearchFilter
+    ) {
+        return statisticsService.getAuthorsStats(authorSearchFilter);
+    }
+
+    @GetMapping("/authors/{id}")
+    public AuthorBookStats getAuthorStats(
+            @PathVariable("id") Long authorId
+    ) {
+        return statisticsService.getAuthorStats(authorId);
+    }
+
+    @GetMapping("/years")
+    public List<YearBookStats> getYearsStats() {
+        return statisticsService.getYearsStats();
+    }
+}
@@ -0,0 +1,89 @@
+package dev.vudovenko.onlinelibrary.statistics;
+
+import dev.vudovenko.onlinelibrary.author.AuthorSearchFilter;
+import dev.vudovenko.onlinelibrary.author.AuthorService;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Reads the aggregates the database keeps up to date on every change of {@code books}
+ * (see the {@code V4__book_statistics} migration), so no read scans the catalog.
+ */
+@Service
+@RequiredArgsConstructor
+public class StatisticsService {
+
+    private final AuthorBookStatsRepository authorBookStatsRepository;
+    private final YearBookStatsRepository yearBookStatsRepository;
+    private final AuthorService authorService;
+
+    @Transactional(readOnly = true)
+    public AuthorBookStats getAuthorStats(Long authorId) {
+        return authorBookStatsRepository.findById(authorId)
+                .map(StatisticsService::toDomain)
+                .orElseGet(() -> {
+                    if (!authorService.isAuthorExistsById(authorId)) {
+                        throw new EntityNotFoundException("Not found author by id=%s"
+                                .formatted(authorId));
+                    }
+                    return new AuthorBookStats(authorId, 0, null, null, null);
+                });
+    }
+
+    /**
+     * Authors without books have no row and are not part of the page.
+     */
+    @Transactional(readOnly = true)
+    public List<AuthorBookStats> getAuthorsStats(AuthorSearchFilter authorSearchFilter) {
+        int pageSize = authorSearchFilter.pageSize() != null
+                ? authorSearchFilter.pageSize()
+                : 10;
+        int pageNumber = authorSearchFilter.pageNumber() != null
+                ? authorSearchFilter.pageNumber()
+                : 0;
+
+        return authorBookStatsRepository.findStatsPage(
+                        Pageable
+                                .ofSize(pageSize)
+                                .withPage(pageNumber)
+                )
+                .stream()
+                .map(StatisticsService::toDomain)
+                .toList();
+    }
+
+    @Transactional(readOnly = true)
+    public List<YearBookStats> getYearsStats() {
+        return yearBookStatsRepository.findAllOrderedByYear()
+                .stream()
+                .map(stats -> new YearBookStats(stats.getPublicationYear(), stats.getBookCount()))
+                .toList();
+    }
+
+    /**
+     * Recomputes every aggregate from {@code books} and compares it with the maintained one.
+     * This is a full scan; it is meant for monitoring and tests, not for dashboards.
+     */
+    @Transactional(readOnly = true)
+    public StatisticsConsistency checkConsistency() {
+        return new StatisticsConsistency(
+                authorBookStatsRepository.countMismatchesWithRecompute(),
+                yearBookStatsRepository.countMismatchesWithRecompute()
+        );
+    }
+
+    private static AuthorBookStats toDomain(AuthorBookStatsEntity stats) {
+        return new AuthorBookStats(
+                stats.getAuthorId(),
+                stats.getBookCount(),
+                (double) stats.getTotalCost() / stats.getBookCount(),
+                stats.getMinCost(),
+                stats.getMaxCost()
+        );
+    }
+}
@@ -0,0 +1,11 @@
+package dev.vudovenko.onlinelibrary.statistics;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+public record YearBookStats(
+
+        @JsonProperty("pubYear")
+        Integer publicationYear,
+        long bookCount
+) {
+}
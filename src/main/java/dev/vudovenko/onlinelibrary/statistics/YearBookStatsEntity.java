@@ -0,0 +1,27 @@
+package dev.vudovenko.onlinelibrary.statistics;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+/**
+ * Maintained by the {@code books_stats_*} triggers, never written by the application.
+ */
+@Getter
+@NoArgsConstructor
+@Immutable
+@Entity
+@Table(name = "year_book_stats")
+public class YearBookStatsEntity {
+
+    @Id
+    @Column(name = "pub_year")
+    private Integer publicationYear;
+
+    @Column(name = "book_count", nullable = false)
+    private Long bookCount;
+}
@@ -0,0 +1,34 @@
+package dev.vudovenko.onlinelibrary.statistics;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
+
+public interface YearBookStatsRepository extends JpaRepository<YearBookStatsEntity, Integer> {
+
+    @Query("SELECT s FROM YearBookStatsEntity s ORDER BY s.publicationYear")
+    List<YearBookStatsEntity> findAllOrderedByYear();
+
+    @Query(
+            value = """
+                    WITH recomputed AS (
+                        SELECT pub_year, count(*) AS book_count
+                        FROM books
+                        GROUP BY pub_year
+                    ),
+                    maintained AS (
+                        SELECT pub_year, book_count
+                        FROM year_book_stats
+                    )
+                    SELECT count(*)
+                    FROM (
+                        (SELECT * FROM maintained EXCEPT SELECT * FROM recomputed)
+                        UNION ALL
+                        (SELECT * FROM recomputed EXCEPT SELECT * FROM maintained)
+                    ) mismatches
+                    """,
+            nativeQuery = true
+    )
+    long countMismatchesWithRecompute();
+}
@@ -1,6 +1,7 @@
 package dev.vudovenko.onlinelibrary.web;
 
 import jakarta.persistence.EntityNotFoundException;
+import jakarta.persistence.OptimisticLockException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
@@ -8,6 +9,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.method.annotation.HandlerMethodValidationException;
 
 import java.time.LocalDateTime;
 import java.util.stream.Collectors;
@@ -19,16 +21,22 @@ public class GlobalExceptionHandler {
 
     @ExceptionHandler({
             MethodArgumentNotValidException.class,
+            HandlerMethodValidationException.class,
             IllegalArgumentException.class
     })
     public ResponseEntity<ServerErrorDto> handleValidationException(
             Exception e
     ) {
-        log.error("Got validation exception", e);
+        log.warn("Got validation exception: {}", e.getMessage());
 
-        String detailedMessage = e instanceof MethodArgumentNotValidException
-                ? constructMethodArgumentNotValidMessage((MethodArgumentNotValidException) e)
-                : e.getMessage();
+        String detailedMessage;
+        if (e instanceof MethodArgumentNotValidException notValid) {
+            detailedMessage = constructMethodArgumentNotValidMessage(notValid);
+        } else if (e instanceof HandlerMethodValidationException notValid) {
+            detailedMessage = constructHandlerMethodValidationMessage(notValid);
+        } else {
+            detailedMessage = e.getMessage();
+        }
 
         ServerErrorDto errorDto =  new ServerErrorDto(
                 "Ошибка валидации запроса",
@@ -61,7 +69,7 @@ public class GlobalExceptionHandler {
     public ResponseEntity<ServerErrorDto> handleNotFoundException(
             EntityNotFoundException e
     ) {
-        log.error("Got exception", e);
+        log.warn("Got exception: {}", e.getMessage());
         ServerErrorDto errorDto =  new ServerErrorDto(
                 "Сущность не найдена",
                 e.getMessage(),
@@ -73,6 +81,22 @@ public class GlobalExceptionHandler {
                 .body(errorDto);
     }
 
+    @ExceptionHandler(OptimisticLockException.class)
+    public ResponseEntity<ServerErrorDto> handleOptimisticLockException(
+            OptimisticLockException e
+    ) {
+        log.warn("Got exception: {}", e.getMessage());
+        ServerErrorDto errorDto = new ServerErrorDto(
+                "Сущность была изменена",
+                e.getMessage(),
+                LocalDateTime.now()
+        );
+
+        return ResponseEntity
+                .status(HttpStatus.PRECONDITION_FAILED)
+                .body(errorDto);
+    }
+
     private static String constructMethodArgumentNotValidMessage(
             MethodArgumentNotValidException e
     ) {
@@ -82,4 +106,16 @@ public class GlobalExceptionHandler {
                 .map(error -> error.getField() + ": " + error.getDefaultMessage())
                 .collect(Collectors.joining(", "));
     }
+
+    private static String constructHandlerMethodValidationMessage(
+            HandlerMethodValidationException e
+    ) {
+        return e.getAllValidationResults()
+                .stream()
+                .flatMap(result -> result.getResolvableErrors()
+                        .stream()
+                        .map(error -> result.getMethodParameter().getParameterName()
+                                + ": " + error.getDefaultMessage()))
+                .collect(Collectors.joining(", "));
+    }
 }
@@ -0,0 +1,27 @@
+-- The schema as spring.jpa.hibernate.ddl-auto=update used to create it. Databases created
+-- that way are baselined at version 0 and then run this script, so everything here is
+-- idempotent.
+
+CREATE TABLE IF NOT EXISTS authors
+(
+    id         bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name       varchar(255) UNIQUE,
+    birth_year integer
+);
+
+CREATE SEQUENCE IF NOT EXISTS books_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS books
+(
+    id        bigint PRIMARY KEY,
+    name      varchar(255) NOT NULL,
+    author_id bigint,
+    pub_year  integer      NOT NULL,
+    page_num  integer      NOT NULL,
+    cost      integer      NOT NULL
+);
+
+-- books created before books_seq existed took their ids from an identity column
+SELECT setval('books_seq', max_id)
+FROM (SELECT max(id) AS max_id FROM books) books_max
+WHERE max_id > (SELECT last_value FROM books_seq);
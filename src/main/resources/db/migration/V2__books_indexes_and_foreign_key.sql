@@ -0,0 +1,34 @@
+-- Hibernate used to add a foreign key with a generated name; keep it if it is there.
+DO
+$$
+    BEGIN
+        IF NOT EXISTS (SELECT 1
+                       FROM pg_constraint
+                       WHERE conrelid = 'books'::regclass
+                         AND contype = 'f') THEN
+            ALTER TABLE books
+                ADD CONSTRAINT fk_books_author_id FOREIGN KEY (author_id) REFERENCES authors (id);
+        END IF;
+    END
+$$;
+
+-- authorId filter ordered by id: GET /books?authorId=, cursor pages, the author-with-books
+-- join, the IN query of the authors page and deleteAuthorFromBooks
+CREATE INDEX IF NOT EXISTS idx_books_author_id_id ON books (author_id, id);
+
+-- authorId and maxCost together; covers every column of BookEntity so the scan does not
+-- need the heap for rows that fail the cost filter
+CREATE INDEX IF NOT EXISTS idx_books_author_id_cost ON books (author_id, cost) INCLUDE (id, name, pub_year, page_num);
+
+-- maxCost without authorId
+CREATE INDEX IF NOT EXISTS idx_books_cost_id ON books (cost, id);
+
+-- full-text search over book names, kept in sync by PostgreSQL on every insert and update
+ALTER TABLE books
+    ADD COLUMN IF NOT EXISTS name_tsv tsvector
+        GENERATED ALWAYS AS (to_tsvector('simple', name)) STORED;
+
+CREATE INDEX IF NOT EXISTS idx_books_name_tsv ON books USING gin (name_tsv);
+
+-- case-insensitive prefix lookups of /authors/suggest while the in-memory index loads
+CREATE INDEX IF NOT EXISTS idx_authors_name_lower ON authors (lower(name) text_pattern_ops);
@@ -0,0 +1,6 @@
+-- case-insensitive name prefix filter of GET /books, see BookSearchQuery
+CREATE INDEX idx_books_name_lower ON books (lower(name) text_pattern_ops);
+
+-- year and page-count range filters without an author
+CREATE INDEX idx_books_pub_year_id ON books (pub_year, id);
+CREATE INDEX idx_books_page_num_id ON books (page_num, id);
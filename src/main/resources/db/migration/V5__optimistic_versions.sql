@@ -0,0 +1,7 @@
+-- version backs @Version and the ETag of a book, updated_at its Last-Modified
+ALTER TABLE books
+    ADD COLUMN version    bigint                   NOT NULL DEFAULT 0,
+    ADD COLUMN updated_at timestamp(6) with time zone NOT NULL DEFAULT now();
+
+ALTER TABLE authors
+    ADD COLUMN version bigint NOT NULL DEFAULT 0;
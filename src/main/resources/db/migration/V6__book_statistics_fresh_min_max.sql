@@ -0,0 +1,75 @@
+-- The min/max read-back of apply_book_stats ran in the snapshot of its UPDATE, so a cheaper
+-- or more expensive book inserted by a transaction that committed while the UPDATE waited
+-- for the statistics row was missed and its least()/greatest() overwritten.
+
+CREATE OR REPLACE FUNCTION apply_book_stats(removed books[], added books[]) RETURNS void
+    LANGUAGE plpgsql AS
+$$
+BEGIN
+    UPDATE author_book_stats s
+    SET book_count = s.book_count - r.book_count,
+        total_cost = s.total_cost - r.total_cost
+    FROM (SELECT author_id, count(*) AS book_count, sum(cost) AS total_cost
+          FROM unnest(removed)
+          WHERE author_id IS NOT NULL
+          GROUP BY author_id) r
+    WHERE s.author_id = r.author_id;
+
+    UPDATE year_book_stats s
+    SET book_count = s.book_count - r.book_count
+    FROM (SELECT pub_year, count(*) AS book_count
+          FROM unnest(removed)
+          GROUP BY pub_year) r
+    WHERE s.pub_year = r.pub_year;
+
+    INSERT INTO author_book_stats AS s (author_id, book_count, total_cost, min_cost, max_cost)
+    SELECT author_id, count(*), sum(cost), min(cost), max(cost)
+    FROM unnest(added)
+    WHERE author_id IS NOT NULL
+    GROUP BY author_id
+    ON CONFLICT (author_id) DO UPDATE
+        SET book_count = s.book_count + excluded.book_count,
+            total_cost = s.total_cost + excluded.total_cost,
+            min_cost   = least(s.min_cost, excluded.min_cost),
+            max_cost   = greatest(s.max_cost, excluded.max_cost);
+
+    INSERT INTO year_book_stats AS s (pub_year, book_count)
+    SELECT pub_year, count(*)
+    FROM unnest(added)
+    GROUP BY pub_year
+    ON CONFLICT (pub_year) DO UPDATE
+        SET book_count = s.book_count + excluded.book_count;
+
+    -- a removed book may have been the cheapest or the most expensive one of its author;
+    -- both are read back with two probes of idx_books_author_id_cost. The statistics rows
+    -- are locked by a statement of their own first: the read-back then takes a fresh
+    -- snapshot that includes every concurrent write that committed while we waited for
+    -- the lock, instead of overwriting its least()/greatest() with an older minimum
+    PERFORM 1
+    FROM author_book_stats s
+    WHERE s.author_id IN (SELECT author_id FROM unnest(removed) WHERE author_id IS NOT NULL)
+    ORDER BY s.author_id
+    FOR UPDATE;
+
+    UPDATE author_book_stats s
+    SET min_cost = (SELECT min(b.cost) FROM books b WHERE b.author_id = s.author_id),
+        max_cost = (SELECT max(b.cost) FROM books b WHERE b.author_id = s.author_id)
+    FROM (SELECT author_id, min(cost) AS min_cost, max(cost) AS max_cost
+          FROM unnest(removed)
+          WHERE author_id IS NOT NULL
+          GROUP BY author_id) r
+    WHERE s.author_id = r.author_id
+      AND s.book_count > 0
+      AND (r.min_cost <= s.min_cost OR r.max_cost >= s.max_cost);
+
+    DELETE
+    FROM author_book_stats s
+    WHERE s.book_count = 0
+      AND s.author_id IN (SELECT author_id FROM unnest(removed));
+
+    DELETE
+    FROM year_book_stats s
+    WHERE s.book_count = 0
+      AND s.pub_year IN (SELECT pub_year FROM unnest(removed));
+END
+$$;
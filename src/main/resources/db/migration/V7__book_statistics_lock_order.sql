@@ -0,0 +1,99 @@
+-- Every statement of apply_book_stats locked the statistics rows it touched in the order
+-- its hash aggregate produced them, so two concurrent batches over the same authors or
+-- years could lock them in opposite orders and deadlock. The rows of both tables are now
+-- locked up front in key order, authors before years, and the inserts create missing
+-- rows in key order too. Writers that touch books with several statements, like a JDBC
+-- batch, take the same locks with lock_book_stats before their first statement.
+--
+-- The rationale of V6 was wrong and its extra lock before the min/max read-back is dropped:
+-- the first UPDATE already holds the row of every author with a removed book, and the
+-- read-back takes its snapshot after that, so it sees every book a concurrent writer of the
+-- author committed.
+
+CREATE FUNCTION lock_book_stats(author_ids bigint[], pub_years integer[]) RETURNS void
+    LANGUAGE plpgsql AS
+$$
+BEGIN
+    PERFORM 1
+    FROM author_book_stats s
+    WHERE s.author_id = ANY (author_ids)
+    ORDER BY s.author_id
+    FOR UPDATE;
+
+    PERFORM 1
+    FROM year_book_stats s
+    WHERE s.pub_year = ANY (pub_years)
+    ORDER BY s.pub_year
+    FOR UPDATE;
+END
+$$;
+
+CREATE OR REPLACE FUNCTION apply_book_stats(removed books[], added books[]) RETURNS void
+    LANGUAGE plpgsql AS
+$$
+BEGIN
+    PERFORM lock_book_stats(
+            ARRAY(SELECT author_id FROM unnest(removed) UNION SELECT author_id FROM unnest(added)),
+            ARRAY(SELECT pub_year FROM unnest(removed) UNION SELECT pub_year FROM unnest(added))
+    );
+
+    UPDATE author_book_stats s
+    SET book_count = s.book_count - r.book_count,
+        total_cost = s.total_cost - r.total_cost
+    FROM (SELECT author_id, count(*) AS book_count, sum(cost) AS total_cost
+          FROM unnest(removed)
+          WHERE author_id IS NOT NULL
+          GROUP BY author_id) r
+    WHERE s.author_id = r.author_id;
+
+    UPDATE year_book_stats s
+    SET book_count = s.book_count - r.book_count
+    FROM (SELECT pub_year, count(*) AS book_count
+          FROM unnest(removed)
+          GROUP BY pub_year) r
+    WHERE s.pub_year = r.pub_year;
+
+    INSERT INTO author_book_stats AS s (author_id, book_count, total_cost, min_cost, max_cost)
+    SELECT author_id, count(*), sum(cost), min(cost), max(cost)
+    FROM unnest(added)
+    WHERE author_id IS NOT NULL
+    GROUP BY author_id
+    ORDER BY author_id
+    ON CONFLICT (author_id) DO UPDATE
+        SET book_count = s.book_count + excluded.book_count,
+            total_cost = s.total_cost + excluded.total_cost,
+            min_cost   = least(s.min_cost, excluded.min_cost),
+            max_cost   = greatest(s.max_cost, excluded.max_cost);
+
+    INSERT INTO year_book_stats AS s (pub_year, book_count)
+    SELECT pub_year, count(*)
+    FROM unnest(added)
+    GROUP BY pub_year
+    ORDER BY pub_year
+    ON CONFLICT (pub_year) DO UPDATE
+        SET book_count = s.book_count + excluded.book_count;
+
+    -- a removed book may have been the cheapest or the most expensive one of its author;
+    -- both are read back with two probes of idx_books_author_id_cost
+    UPDATE author_book_stats s
+    SET min_cost = (SELECT min(b.cost) FROM books b WHERE b.author_id = s.author_id),
+        max_cost = (SELECT max(b.cost) FROM books b WHERE b.author_id = s.author_id)
+    FROM (SELECT author_id, min(cost) AS min_cost, max(cost) AS max_cost
+          FROM unnest(removed)
+          WHERE author_id IS NOT NULL
+          GROUP BY author_id) r
+    WHERE s.author_id = r.author_id
+      AND s.book_count > 0
+      AND (r.min_cost <= s.min_cost OR r.max_cost >= s.max_cost);
+
+    DELETE
+    FROM author_book_stats s
+    WHERE s.book_count = 0
+      AND s.author_id IN (SELECT author_id FROM unnest(removed));
+
+    DELETE
+    FROM year_book_stats s
+    WHERE s.book_count = 0
+      AND s.pub_year IN (SELECT pub_year FROM unnest(removed));
+END
+$$;
@@ -0,0 +1,10 @@
+-- V2 made idx_books_author_id_cost cover every column of BookEntity, but V5 added version
+-- and updated_at, which the search selects as well, so every matching row went to the heap
+-- again. The new index is built before the old one is dropped, so the authorId and maxCost
+-- search is never left without one.
+CREATE INDEX idx_books_author_id_cost_v8 ON books (author_id, cost)
+    INCLUDE (id, name, pub_year, page_num, version, updated_at);
+
+DROP INDEX idx_books_author_id_cost;
+
+ALTER INDEX idx_books_author_id_cost_v8 RENAME TO idx_books_author_id_cost;
@@ -1,8 +1,12 @@
 package dev.vudovenko.onlinelibrary.author;
 
+import com.fasterxml.jackson.core.type.TypeReference;
 import dev.vudovenko.onlinelibrary.AbstractTest;
 import dev.vudovenko.onlinelibrary.book.Book;
 import dev.vudovenko.onlinelibrary.book.BookService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -12,6 +16,7 @@ import java.util.List;
 import java.util.stream.IntStream;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -23,6 +28,8 @@ class AuthorControllerTest extends AbstractTest {
     private BookService bookService;
     @Autowired
     private AuthorRepository authorRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
 
     @Test
     void shouldSuccessCreateAuthor() throws Exception {
@@ -68,10 +75,19 @@ class AuthorControllerTest extends AbstractTest {
         List<Book> authorBooks = IntStream.range(0, 10)
                 .mapToObj(i -> createBootToAuthor(author.id()))
                 .toList();
+        // populate the book cache so the deletion has to invalidate it
+        authorBooks.forEach(book -> bookService.findById(book.id()));
+
+        Statistics statistics = entityManagerFactory
+                .unwrap(SessionFactory.class)
+                .getStatistics();
+        statistics.clear();
 
         mockMvc.perform(delete("/authors/{id}", author.id()))
                 .andExpect(status().isNoContent());
 
+        Assertions.assertEquals(2, statistics.getPrepareStatementCount());
+
         Assertions.assertFalse(authorRepository.existsById(author.id()));
         authorBooks
                 .forEach(book -> {
@@ -80,6 +96,103 @@ class AuthorControllerTest extends AbstractTest {
                 });
     }
 
+    @Test
+    void shouldReturnNotFoundWhenDeletingMissingAuthor() throws Exception {
+        mockMvc.perform(delete("/authors/{id}", Long.MAX_VALUE))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void shouldLoadAuthorsPageWithFixedNumberOfStatements() throws Exception {
+        IntStream.range(0, 5)
+                .forEach(i -> {
+                    Author author = authorService.createAuthor(
+                            new Author(
+                                    null,
+                                    "paged-author" + getRandomInt(),
+                                    1900,
+                                    List.of()
+                            )
+                    );
+                    createBootToAuthor(author.id());
+                    createBootToAuthor(author.id());
+                });
+
+        Statistics statistics = entityManagerFactory
+                .unwrap(SessionFactory.class)
+                .getStatistics();
+        statistics.clear();
+
+        String authorsJson = mockMvc.perform(
+                        get("/authors")
+                                .param("pageNumber", "0")
+                                .param("pageSize", "5")
+                )
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        Assertions.assertEquals(2, statistics.getPrepareStatementCount());
+
+        List<AuthorDto> authors = objectMapper.readValue(
+                authorsJson,
+                new TypeReference<List<AuthorDto>>() {
+                }
+        );
+        Assertions.assertEquals(5, authors.size());
+        authors.forEach(author -> author.books()
+                .forEach(book -> Assertions.assertEquals(author.id(), book.authorId())));
+    }
+
+    @Test
+    void shouldSuggestAuthorsByNamePrefixWithoutDatabase() throws Exception {
+        String prefix = "Suggested-" + Integer.toUnsignedString(getRandomInt()) + "-";
+        Author first = authorService.createAuthor(new Author(null, prefix + "a", 1900, List.of()));
+        Author deleted = authorService.createAuthor(new Author(null, prefix + "b", 1900, List.of()));
+        Author third = authorService.createAuthor(new Author(null, prefix + "c", 1900, List.of()));
+        authorService.deleteAuthor(deleted.id());
+
+        Statistics statistics = entityManagerFactory
+                .unwrap(SessionFactory.class)
+                .getStatistics();
+        statistics.clear();
+
+        String suggestionsJson = mockMvc.perform(
+                        get("/authors/suggest")
+                                .param("prefix", prefix.toLowerCase())
+                                .param("limit", "5")
+                )
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        Assertions.assertEquals(0, statistics.getPrepareStatementCount());
+        List<AuthorSuggestion> suggestions = objectMapper.readValue(
+                suggestionsJson,
+                new TypeReference<List<AuthorSuggestion>>() {
+                }
+        );
+        Assertions.assertEquals(
+                List.of(
+                        new AuthorSuggestion(first.id(), first.name()),
+                        new AuthorSuggestion(third.id(), third.name())
+                ),
+                suggestions
+        );
+    }
+
+    @Test
+    void shouldReturnBadRequestWhenSuggestLimitIsTooLarge() throws Exception {
+        mockMvc.perform(
+                        get("/authors/suggest")
+                                .param("prefix", "a")
+                                .param("limit", "1000")
+                )
+                .andExpect(status().isBadRequest());
+    }
+
     public Book createBootToAuthor(Long authorId) {
         return bookService.createBook(
                 new Book(
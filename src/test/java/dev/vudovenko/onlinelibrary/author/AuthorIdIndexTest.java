@@ -0,0 +1,86 @@
+package dev.vudovenko.onlinelibrary.author;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.LongStream;
+
+class AuthorIdIndexTest {
+
+    private static final int PRELOADED_AUTHORS = 10_000;
+    private static final int CREATED_AUTHORS = 10_000;
+
+    @Test
+    void shouldNotBeUsableBeforeInitialization() {
+        AuthorIdIndex index = new AuthorIdIndex();
+        index.add(1L);
+
+        Assertions.assertFalse(index.isInitialized());
+
+        index.initialize(List.of());
+
+        Assertions.assertTrue(index.isInitialized());
+        Assertions.assertTrue(index.contains(1L));
+    }
+
+    @Test
+    void shouldNotBeUsableWhenIdDoesNotFit() {
+        AuthorIdIndex index = new AuthorIdIndex();
+        index.initialize(List.of(1L));
+
+        index.add(Long.MAX_VALUE);
+
+        Assertions.assertFalse(index.isInitialized());
+    }
+
+    @Test
+    void shouldStayConsistentWhenCreatesAndDeletesRaceWithInitialization() throws Exception {
+        AuthorIdIndex index = new AuthorIdIndex();
+        List<Long> preloadedIds = LongStream.rangeClosed(1, PRELOADED_AUTHORS)
+                .boxed()
+                .toList();
+
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            Future<?> creates = executor.submit(() -> {
+                start.await();
+                LongStream.rangeClosed(PRELOADED_AUTHORS + 1, PRELOADED_AUTHORS + CREATED_AUTHORS)
+                        .forEach(index::add);
+                return null;
+            });
+            Future<?> deletes = executor.submit(() -> {
+                start.await();
+                LongStream.rangeClosed(1, PRELOADED_AUTHORS)
+                        .filter(id -> id % 2 == 1)
+                        .forEach(index::remove);
+                return null;
+            });
+            Future<?> initialization = executor.submit(() -> {
+                start.await();
+                index.initialize(preloadedIds);
+                return null;
+            });
+
+            start.countDown();
+            creates.get();
+            deletes.get();
+            initialization.get();
+        } finally {
+            executor.shutdownNow();
+        }
+
+        Assertions.assertTrue(index.isInitialized());
+        LongStream.rangeClosed(1, PRELOADED_AUTHORS + CREATED_AUTHORS)
+                .forEach(id -> Assertions.assertEquals(
+                        id > PRELOADED_AUTHORS || id % 2 == 0,
+                        index.contains(id),
+                        "id=" + id
+                ));
+    }
+}
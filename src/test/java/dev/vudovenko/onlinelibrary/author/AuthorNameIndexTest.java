@@ -0,0 +1,103 @@
+package dev.vudovenko.onlinelibrary.author;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.LongStream;
+
+class AuthorNameIndexTest {
+
+    private static final int PRELOADED_AUTHORS = 10_000;
+    private static final int CREATED_AUTHORS = 10_000;
+
+    @Test
+    void shouldSuggestNamesStartingWithPrefixIgnoringCase() {
+        AuthorNameIndex index = new AuthorNameIndex();
+        index.initialize(List.of(
+                new AuthorSuggestion(1L, "Tolstoy"),
+                new AuthorSuggestion(2L, "Tolkien"),
+                new AuthorSuggestion(3L, "Turgenev"),
+                new AuthorSuggestion(4L, "tolstaya")
+        ));
+
+        Assertions.assertEquals(
+                List.of(
+                        new AuthorSuggestion(2L, "Tolkien"),
+                        new AuthorSuggestion(4L, "tolstaya"),
+                        new AuthorSuggestion(1L, "Tolstoy")
+                ),
+                index.suggest("tol", 10)
+        );
+        Assertions.assertEquals(
+                List.of(new AuthorSuggestion(2L, "Tolkien")),
+                index.suggest("TOL", 1)
+        );
+        Assertions.assertEquals(List.of(), index.suggest("x", 10));
+    }
+
+    @Test
+    void shouldStayConsistentWhenCreatesAndDeletesRaceWithInitialization() throws Exception {
+        AuthorNameIndex index = new AuthorNameIndex();
+        List<AuthorSuggestion> preloadedAuthors = LongStream.rangeClosed(1, PRELOADED_AUTHORS)
+                .mapToObj(AuthorNameIndexTest::author)
+                .toList();
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            Future<?> creates = executor.submit(() -> {
+                start.await();
+                LongStream.rangeClosed(PRELOADED_AUTHORS + 1, PRELOADED_AUTHORS + CREATED_AUTHORS)
+                        .forEach(id -> index.add(id, author(id).name()));
+                return null;
+            });
+            Future<?> deletes = executor.submit(() -> {
+                start.await();
+                LongStream.rangeClosed(1, PRELOADED_AUTHORS)
+                        .filter(id -> id % 2 == 1)
+                        .forEach(index::remove);
+                return null;
+            });
+            Future<?> reads = executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < 1_000; i++) {
+                    List<AuthorSuggestion> suggestions = index.suggest("author-0001", 10);
+                    suggestions.forEach(suggestion -> Assertions.assertTrue(
+                            suggestion.name().startsWith("author-0001")
+                    ));
+                }
+                return null;
+            });
+            Future<?> initialization = executor.submit(() -> {
+                start.await();
+                index.initialize(preloadedAuthors);
+                return null;
+            });
+
+            start.countDown();
+            creates.get();
+            deletes.get();
+            reads.get();
+            initialization.get();
+        } finally {
+            executor.shutdownNow();
+        }
+
+        Assertions.assertTrue(index.isInitialized());
+        LongStream.rangeClosed(1, PRELOADED_AUTHORS + CREATED_AUTHORS)
+                .forEach(id -> Assertions.assertEquals(
+                        id > PRELOADED_AUTHORS || id % 2 == 0,
+                        index.suggest(author(id).name(), 1).contains(author(id)),
+                        "id=" + id
+                ));
+    }
+
+    private static AuthorSuggestion author(long id) {
+        return new AuthorSuggestion(id, "author-%08d".formatted(id));
+    }
+}
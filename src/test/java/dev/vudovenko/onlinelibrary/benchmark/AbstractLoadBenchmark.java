@@ -0,0 +1,227 @@
+package dev.vudovenko.onlinelibrary.benchmark;
+
+import dev.vudovenko.onlinelibrary.AbstractTest;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.junit.jupiter.api.Tag;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Drives a running server over HTTP with a fixed number of concurrent clients and records
+ * the latency of every operation in an HdrHistogram. Every client is a virtual thread,
+ * so the client side never is the bottleneck.
+ * <p>
+ * Reports are printed and also written to {@code target/benchmark}, together with the
+ * full percentile distribution of each operation ({@code .hgrm}), so runs on different
+ * commits can be compared.
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public abstract class AbstractLoadBenchmark extends AbstractTest {
+
+    private static final Path REPORT_DIRECTORY = Path.of("target", "benchmark");
+
+    @LocalServerPort
+    protected int port;
+
+    protected final HttpClient httpClient = HttpClient.newBuilder()
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+
+    protected HttpRequest.Builder request(String pathAndQuery) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + pathAndQuery));
+    }
+
+    protected LoadReport runLoad(
+            String name,
+            String pathAndQuery,
+            int concurrency,
+            Duration duration
+    ) throws Exception {
+        Operation operation = new Operation("GET " + pathAndQuery, request(pathAndQuery).GET().build());
+        return runLoad(name, concurrency, duration, () -> random -> operation);
+    }
+
+    /**
+     * @param workloads creates the workload of one client; it may keep per-client state
+     *                  such as the ids of the books this client created
+     */
+    protected LoadReport runLoad(
+            String name,
+            int concurrency,
+            Duration duration,
+            Supplier<Workload> workloads
+    ) throws Exception {
+        Map<String, Recorder> recorders = new ConcurrentHashMap<>();
+        Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+
+        long deadline = System.nanoTime() + duration.toNanos();
+        List<Future<Void>> clients = new ArrayList<>(concurrency);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concurrency; i++) {
+                Workload workload = workloads.get();
+                clients.add(executor.submit(() -> runClient(workload, deadline, recorders, errors)));
+            }
+        }
+        for (Future<Void> client : clients) {
+            join(client);
+        }
+
+        Map<String, Histogram> histograms = new TreeMap<>();
+        recorders.forEach((operation, recorder) -> histograms.put(operation, recorder.getIntervalHistogram()));
+        Map<String, Long> errorCounts = new TreeMap<>();
+        errors.forEach((operation, count) -> errorCounts.put(operation, count.sum()));
+
+        LoadReport report = new LoadReport(name, concurrency, duration, histograms, errorCounts);
+        System.out.println(report);
+        report.writeTo(REPORT_DIRECTORY);
+        return report;
+    }
+
+    private Void runClient(
+            Workload workload,
+            long deadline,
+            Map<String, Recorder> recorders,
+            Map<String, LongAdder> errors
+    ) throws Exception {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (System.nanoTime() < deadline) {
+            Operation operation = workload.next(random);
+            long start = System.nanoTime();
+            HttpResponse<String> response = httpClient.send(
+                    operation.request(),
+                    HttpResponse.BodyHandlers.ofString()
+            );
+            long latencyMicros = (System.nanoTime() - start) / 1000;
+
+            recorders.computeIfAbsent(operation.name(), key -> new Recorder(3))
+                    .recordValue(latencyMicros);
+            if (response.statusCode() >= 400) {
+                errors.computeIfAbsent(operation.name(), key -> new LongAdder()).increment();
+            } else {
+                workload.onSuccess(operation, response);
+            }
+        }
+        return null;
+    }
+
+    private static <T> T join(Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    public record Operation(
+
+            String name,
+            HttpRequest request
+    ) {
+    }
+
+    /**
+     * The operations of one client.
+     */
+    @FunctionalInterface
+    public interface Workload {
+
+        Operation next(ThreadLocalRandom random);
+
+        default void onSuccess(Operation operation, HttpResponse<String> response) {
+        }
+    }
+
+    public record LoadReport(
+
+            String name,
+            int concurrency,
+            Duration duration,
+            Map<String, Histogram> histograms,
+            Map<String, Long> errors
+    ) {
+
+        public long totalCount() {
+            return histograms.values()
+                    .stream()
+                    .mapToLong(Histogram::getTotalCount)
+                    .sum();
+        }
+
+        public double throughput() {
+            return totalCount() / (duration.toNanos() / 1e9);
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder report = new StringBuilder()
+                    .append("== %s, concurrency=%d, duration=%ss%n".formatted(
+                            name, concurrency, duration.toSeconds()))
+                    .append("%-40s %9s %10s %9s %9s %9s %9s %7s%n".formatted(
+                            "operation", "count", "req/s", "p50 us", "p99 us", "p99.9 us", "max us", "errors"));
+
+            Histogram total = new Histogram(3);
+            histograms.forEach((operation, histogram) -> {
+                total.add(histogram);
+                report.append(row(operation, histogram, errors.getOrDefault(operation, 0L)));
+            });
+            long totalErrors = errors.values()
+                    .stream()
+                    .mapToLong(Long::longValue)
+                    .sum();
+            return report.append(row("TOTAL", total, totalErrors)).toString();
+        }
+
+        private String row(String operation, Histogram histogram, long errorCount) {
+            return "%-40s %9d %10.1f %9d %9d %9d %9d %7d%n".formatted(
+                    operation.length() > 40 ? operation.substring(0, 40) : operation,
+                    histogram.getTotalCount(),
+                    histogram.getTotalCount() / (duration.toNanos() / 1e9),
+                    histogram.getValueAtPercentile(50),
+                    histogram.getValueAtPercentile(99),
+                    histogram.getValueAtPercentile(99.9),
+                    histogram.getMaxValue(),
+                    errorCount
+            );
+        }
+
+        void writeTo(Path directory) throws IOException {
+            Files.createDirectories(directory);
+            String fileName = (name + "-c" + concurrency).replaceAll("[^A-Za-z0-9.-]+", "_");
+            Files.writeString(directory.resolve(fileName + ".txt"), toString());
+            for (Map.Entry<String, Histogram> entry : histograms.entrySet()) {
+                String operationFileName = fileName + "-" + entry.getKey().replaceAll("[^A-Za-z0-9.-]+", "_");
+                try (PrintStream out = new PrintStream(
+                        Files.newOutputStream(directory.resolve(operationFileName + ".hgrm")))) {
+                    entry.getValue().outputPercentileDistribution(out, 1.0);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package dev.vudovenko.onlinelibrary.benchmark;
+
+import dev.vudovenko.onlinelibrary.author.Author;
+import dev.vudovenko.onlinelibrary.author.AuthorService;
+import dev.vudovenko.onlinelibrary.book.Book;
+import dev.vudovenko.onlinelibrary.book.BookService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * JDBC-bound search at growing concurrency; the subclasses only differ in the threading mode.
+ * Both use the connection pool of the virtual-thread profile, so the pool size is not part
+ * of the comparison. Run with {@code mvn -Pbenchmark test} and compare the two reports.
+ */
+@TestPropertySource(properties = {
+        "spring.datasource.hikari.maximum-pool-size=40",
+        "spring.datasource.hikari.minimum-idle=40",
+        "spring.datasource.hikari.connection-timeout=10000"
+})
+abstract class AbstractThreadingModeBenchmark extends AbstractLoadBenchmark {
+
+    private static final Duration DURATION = Duration.ofSeconds(20);
+
+    @Autowired
+    private AuthorService authorService;
+    @Autowired
+    private BookService bookService;
+
+    protected abstract String modeName();
+
+    @Test
+    void searchBooksUnderConcurrentLoad() throws Exception {
+        Author author = authorService.createAuthor(
+                new Author(null, "load-author" + getRandomInt(), 1900, List.of())
+        );
+        bookService.createBooks(
+                IntStream.range(0, 1_000)
+                        .mapToObj(i -> new Book(null, "load-book-" + i, author.id(), 2000, 100, i))
+                        .toList()
+        );
+        String path = "/books?authorId=%d&pageSize=20&pageNumber=10".formatted(author.id());
+
+        runLoad(modeName() + " warmup", path, 50, Duration.ofSeconds(5));
+        for (int concurrency : new int[]{50, 200, 1_000, 4_000}) {
+            runLoad(modeName(), path, concurrency, DURATION);
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package dev.vudovenko.onlinelibrary.benchmark;
+
+class PlatformThreadsLoadBenchmarkTest extends AbstractThreadingModeBenchmark {
+
+    @Override
+    protected String modeName() {
+        return "platform threads";
+    }
+}
@@ -0,0 +1,146 @@
+package dev.vudovenko.onlinelibrary.benchmark;
+
+import dev.vudovenko.onlinelibrary.reactive.ReactiveBookServer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * The same read mix against the servlet/JPA endpoints and the reactive/R2DBC ones of the
+ * same application, at growing numbers of concurrent clients. Every client waits for
+ * {@code benchmark.think.millis} between requests, like a slow client on a mobile link,
+ * so at high concurrency most connections are idle and threads, not the database, are
+ * what runs out first.
+ * <p>
+ * Run with {@code mvn -Pbenchmark test -Dtest=ReactiveReadLoadBenchmarkTest}.
+ */
+@ActiveProfiles("reactive")
+class ReactiveReadLoadBenchmarkTest extends AbstractLoadBenchmark {
+
+    private static final int CATALOG_SIZE = Integer.getInteger("benchmark.catalog.size", 100_000);
+    private static final int AUTHORS = Math.max(1, CATALOG_SIZE / 100);
+    private static final long THINK_MILLIS = Long.getLong("benchmark.think.millis", 100);
+    private static final Duration DURATION = Duration.ofSeconds(
+            Integer.getInteger("benchmark.duration.seconds", 30)
+    );
+
+    @Autowired
+    private ReactiveBookServer reactiveBookServer;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private List<Long> authorIds;
+    private List<Long> bookIds;
+
+    @DynamicPropertySource
+    static void reactiveProperties(DynamicPropertyRegistry registry) {
+        registry.add(
+                "library.reactive.r2dbc.url",
+                () -> "r2dbc:postgresql://localhost:%d/postgres".formatted(POSTGRES_CONTAINER.getFirstMappedPort())
+        );
+        registry.add("library.reactive.port", () -> 0);
+    }
+
+    @Test
+    void compareServletAndReactiveReads() throws Exception {
+        seedCatalog();
+        String servletBase = "http://localhost:" + port;
+        String reactiveBase = "http://localhost:" + reactiveBookServer.getPort();
+
+        runLoad("servlet warmup", 50, Duration.ofSeconds(10), () -> new ReadWorkload(servletBase));
+        runLoad("reactive warmup", 50, Duration.ofSeconds(10), () -> new ReadWorkload(reactiveBase));
+        for (int concurrency : new int[]{100, 1_000, 5_000}) {
+            runLoad("servlet-jpa reads", concurrency, DURATION, () -> new ReadWorkload(servletBase));
+            runLoad("reactive-r2dbc reads", concurrency, DURATION, () -> new ReadWorkload(reactiveBase));
+        }
+    }
+
+    private void seedCatalog() {
+        String authorPrefix = "reactive-load-author-" + Integer.toUnsignedString(getRandomInt()) + "-";
+        jdbcTemplate.update(
+                """
+                        INSERT INTO authors (name, birth_year)
+                        SELECT ? || g, 1900 + g % 100
+                        FROM generate_series(1, ?) g
+                        """,
+                authorPrefix,
+                AUTHORS
+        );
+        jdbcTemplate.update(
+                """
+                        INSERT INTO books (id, name, author_id, pub_year, page_num, cost)
+                        SELECT nextval('books_seq'),
+                               'load-book-' || g,
+                               a.ids[1 + g % array_length(a.ids, 1)],
+                               1950 + g % 70,
+                               100 + g % 900,
+                               g % 10000
+                        FROM generate_series(1, ?) g,
+                             (SELECT array_agg(id) AS ids FROM authors WHERE name LIKE ?) a
+                        """,
+                CATALOG_SIZE,
+                authorPrefix + "%"
+        );
+        jdbcTemplate.execute("ANALYZE");
+
+        authorIds = jdbcTemplate.queryForList(
+                "SELECT id FROM authors WHERE name LIKE ?",
+                Long.class,
+                authorPrefix + "%"
+        );
+        bookIds = jdbcTemplate.queryForList(
+                "SELECT b.id FROM books b JOIN authors a ON a.id = b.author_id WHERE a.name LIKE ?",
+                Long.class,
+                authorPrefix + "%"
+        );
+    }
+
+    /**
+     * Half searches by author, half gets by id, with think time before every request.
+     */
+    private class ReadWorkload implements Workload {
+
+        private final String baseUrl;
+
+        private ReadWorkload(String baseUrl) {
+            this.baseUrl = baseUrl;
+        }
+
+        @Override
+        public Operation next(ThreadLocalRandom random) {
+            think();
+            if (random.nextBoolean()) {
+                return new Operation("GET /books search", get(
+                        "/books?authorId=%d&pageSize=20&pageNumber=0".formatted(
+                                authorIds.get(random.nextInt(authorIds.size()))
+                        )
+                ));
+            }
+            return new Operation("GET /books/{id}", get(
+                    "/books/" + bookIds.get(random.nextInt(bookIds.size()))
+            ));
+        }
+
+        private HttpRequest get(String pathAndQuery) {
+            return HttpRequest.newBuilder(URI.create(baseUrl + pathAndQuery)).GET().build();
+        }
+
+        private void think() {
+            try {
+                Thread.sleep(THINK_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
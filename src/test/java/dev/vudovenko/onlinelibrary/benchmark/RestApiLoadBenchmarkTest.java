@@ -0,0 +1,174 @@
+package dev.vudovenko.onlinelibrary.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import dev.vudovenko.onlinelibrary.author.AuthorService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Mixed read/write workload over the whole REST API against a seeded catalog.
+ * <p>
+ * Run with {@code mvn -Pbenchmark test -Dtest=RestApiLoadBenchmarkTest} and tune it with
+ * {@code -Dbenchmark.catalog.size}, {@code -Dbenchmark.concurrency} and
+ * {@code -Dbenchmark.duration.seconds}.
+ */
+class RestApiLoadBenchmarkTest extends AbstractLoadBenchmark {
+
+    private static final int CATALOG_SIZE = Integer.getInteger("benchmark.catalog.size", 100_000);
+    private static final int AUTHORS = Math.max(1, CATALOG_SIZE / 100);
+    private static final int CONCURRENCY = Integer.getInteger("benchmark.concurrency", 64);
+    private static final Duration DURATION = Duration.ofSeconds(
+            Integer.getInteger("benchmark.duration.seconds", 60)
+    );
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private AuthorService authorService;
+
+    private List<Long> authorIds;
+    private List<Long> bookIds;
+
+    @Test
+    void mixedWorkload() throws Exception {
+        seedCatalog();
+
+        runLoad("rest-api warmup", CONCURRENCY, Duration.ofSeconds(10), MixedWorkload::new);
+        LoadReport report = runLoad(
+                "rest-api mixed, catalog=" + CATALOG_SIZE, CONCURRENCY, DURATION, MixedWorkload::new
+        );
+
+        // an error path would measure validation instead of the operation
+        assertThat(report.errors()).isEmpty();
+    }
+
+    /**
+     * Seeds with plain SQL for speed, so the in-memory author indexes are reloaded
+     * afterwards; otherwise every write for a seeded author is rejected.
+     */
+    private void seedCatalog() {
+        String authorPrefix = "load-author-" + Integer.toUnsignedString(getRandomInt()) + "-";
+        jdbcTemplate.update(
+                """
+                        INSERT INTO authors (name, birth_year)
+                        SELECT ? || g, 1900 + g % 100
+                        FROM generate_series(1, ?) g
+                        """,
+                authorPrefix,
+                AUTHORS
+        );
+        jdbcTemplate.update(
+                """
+                        INSERT INTO books (id, name, author_id, pub_year, page_num, cost)
+                        SELECT nextval('books_seq'),
+                               'load-book-' || g,
+                               a.ids[1 + g % array_length(a.ids, 1)],
+                               1950 + g % 70,
+                               100 + g % 900,
+                               g % 10000
+                        FROM generate_series(1, ?) g,
+                             (SELECT array_agg(id) AS ids FROM authors WHERE name LIKE ?) a
+                        """,
+                CATALOG_SIZE,
+                authorPrefix + "%"
+        );
+        jdbcTemplate.execute("ANALYZE");
+        authorService.loadAuthorIndexes();
+
+        authorIds = jdbcTemplate.queryForList(
+                "SELECT id FROM authors WHERE name LIKE ?",
+                Long.class,
+                authorPrefix + "%"
+        );
+        bookIds = jdbcTemplate.queryForList(
+                "SELECT b.id FROM books b JOIN authors a ON a.id = b.author_id WHERE a.name LIKE ?",
+                Long.class,
+                authorPrefix + "%"
+        );
+    }
+
+    /**
+     * 35% search, 35% get by id, 5% authors page, 10% create, 10% update, 5% delete.
+     * Deletes only remove books created by the same client.
+     */
+    private class MixedWorkload implements Workload {
+
+        private final List<Long> createdBookIds = new ArrayList<>();
+
+        @Override
+        public Operation next(ThreadLocalRandom random) {
+            int dice = random.nextInt(100);
+            if (dice < 35) {
+                return new Operation("GET /books search", request(
+                        "/books?authorId=%d&pageSize=20".formatted(randomOf(authorIds, random))
+                ).GET().build());
+            }
+            if (dice < 70) {
+                return new Operation("GET /books/{id}", request(
+                        "/books/" + randomOf(bookIds, random)
+                ).GET().build());
+            }
+            if (dice < 75) {
+                return new Operation("GET /authors", request(
+                        "/authors?pageSize=20&pageNumber=" + random.nextInt(Math.max(1, AUTHORS / 20))
+                ).GET().build());
+            }
+            if (dice < 85) {
+                return new Operation("POST /books", request("/books")
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(bookJson(random)))
+                        .build());
+            }
+            if (dice < 95) {
+                return new Operation("PUT /books/{id}", request("/books/" + randomOf(bookIds, random))
+                        .header("Content-Type", "application/json")
+                        .PUT(HttpRequest.BodyPublishers.ofString(bookJson(random)))
+                        .build());
+            }
+            if (createdBookIds.isEmpty()) {
+                return next(random);
+            }
+            return new Operation("DELETE /books/{id}", request(
+                    "/books/" + createdBookIds.remove(createdBookIds.size() - 1)
+            ).DELETE().build());
+        }
+
+        @Override
+        public void onSuccess(Operation operation, HttpResponse<String> response) {
+            if (!operation.name().equals("POST /books")) {
+                return;
+            }
+            try {
+                createdBookIds.add(objectMapper.readTree(response.body()).get("id").asLong());
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        private String bookJson(ThreadLocalRandom random) {
+            return """
+                    {"name":"load-book-%d","authorId":%d,"pubYear":%d,"pageNum":%d,"cost":%d}"""
+                    .formatted(
+                            random.nextInt(1_000_000),
+                            randomOf(authorIds, random),
+                            1950 + random.nextInt(70),
+                            1 + random.nextInt(1000),
+                            random.nextInt(10_000)
+                    );
+        }
+
+        private static Long randomOf(List<Long> ids, ThreadLocalRandom random) {
+            return ids.get(random.nextInt(ids.size()));
+        }
+    }
+}
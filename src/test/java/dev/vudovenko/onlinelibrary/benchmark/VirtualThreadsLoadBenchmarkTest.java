@@ -0,0 +1,12 @@
+package dev.vudovenko.onlinelibrary.benchmark;
+
+import org.springframework.test.context.ActiveProfiles;
+
+@ActiveProfiles("virtual-threads")
+class VirtualThreadsLoadBenchmarkTest extends AbstractThreadingModeBenchmark {
+
+    @Override
+    protected String modeName() {
+        return "virtual threads";
+    }
+}
@@ -0,0 +1,74 @@
+package dev.vudovenko.onlinelibrary.books;
+
+import dev.vudovenko.onlinelibrary.AbstractTest;
+import dev.vudovenko.onlinelibrary.author.Author;
+import dev.vudovenko.onlinelibrary.author.AuthorService;
+import dev.vudovenko.onlinelibrary.book.Book;
+import dev.vudovenko.onlinelibrary.book.BookService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares insert throughput of one {@code createBook} call per book with {@code createBooks}.
+ * Run with {@code mvn -Pbenchmark test}.
+ */
+@Tag("benchmark")
+class BookBatchInsertBenchmarkTest extends AbstractTest {
+
+    private static final int BOOKS = 5_000;
+
+    @Autowired
+    private BookService bookService;
+    @Autowired
+    private AuthorService authorService;
+
+    @Test
+    void batchInsertShouldOutperformSingleInserts() {
+        Author author = authorService.createAuthor(
+                new Author(null, "benchmark-author" + getRandomInt(), 1900, List.of())
+        );
+        // warm up both paths
+        generateBooks(author.id(), 500).forEach(bookService::createBook);
+        bookService.createBooks(generateBooks(author.id(), 500));
+
+        List<Book> singleBooks = generateBooks(author.id(), BOOKS);
+        long singleStart = System.nanoTime();
+        singleBooks.forEach(bookService::createBook);
+        long singleNanos = System.nanoTime() - singleStart;
+
+        List<Book> batchBooks = generateBooks(author.id(), BOOKS);
+        long batchStart = System.nanoTime();
+        bookService.createBooks(batchBooks);
+        long batchNanos = System.nanoTime() - batchStart;
+
+        System.out.printf(
+                "%d books:%n"
+                        + "  createBook one by one: %8d ms, %8.0f rows/s%n"
+                        + "  createBooks batch:     %8d ms, %8.0f rows/s%n",
+                BOOKS,
+                singleNanos / 1_000_000, BOOKS / (singleNanos / 1e9),
+                batchNanos / 1_000_000, BOOKS / (batchNanos / 1e9)
+        );
+
+        assertThat(batchNanos).isLessThan(singleNanos);
+    }
+
+    private List<Book> generateBooks(Long authorId, int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> new Book(
+                        null,
+                        "benchmark-book-" + i,
+                        authorId,
+                        2000,
+                        100,
+                        i % 1000
+                ))
+                .toList();
+    }
+}
@@ -1,21 +1,39 @@
 package dev.vudovenko.onlinelibrary.books;
 
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
 import dev.vudovenko.onlinelibrary.AbstractTest;
 import dev.vudovenko.onlinelibrary.author.Author;
 import dev.vudovenko.onlinelibrary.author.AuthorService;
 import dev.vudovenko.onlinelibrary.book.Book;
+import dev.vudovenko.onlinelibrary.book.BookBatchItemResultDto;
+import dev.vudovenko.onlinelibrary.book.BookCache;
 import dev.vudovenko.onlinelibrary.book.BookDto;
 import dev.vudovenko.onlinelibrary.book.BookRepository;
+import dev.vudovenko.onlinelibrary.book.BookSearchFilter;
 import dev.vudovenko.onlinelibrary.book.BookService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.IntStream;
 
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 class BookDtoControllerTest extends AbstractTest {
@@ -26,6 +44,10 @@ class BookDtoControllerTest extends AbstractTest {
     private AuthorService authorService;
     @Autowired
     private BookRepository bookRepository;
+    @Autowired
+    private BookCache bookCache;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
 
     @Test
     void shouldSuccessCreateBook() throws Exception {
@@ -82,6 +104,61 @@ class BookDtoControllerTest extends AbstractTest {
                 .andExpect(status().is(400));
     }
 
+    @Test
+    void shouldReportPerItemResultsForBatchCreate() throws Exception {
+        Author author = createDummyAuthor();
+        List<BookDto> booksToCreate = List.of(
+                new BookDto(null, "batch-book" + getRandomInt(), author.id(), 2024, 100, 6000),
+                new BookDto(null, null, author.id(), 2024, 100, 6000),
+                new BookDto(null, "batch-book" + getRandomInt(), Long.MAX_VALUE, 2024, 100, 6000)
+        );
+
+        String resultsJson = mockMvc.perform(
+                        post("/books/batch")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(booksToCreate))
+                )
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        List<BookBatchItemResultDto> results = objectMapper.readValue(
+                resultsJson,
+                new TypeReference<List<BookBatchItemResultDto>>() {
+                }
+        );
+
+        Assertions.assertEquals(3, results.size());
+        Assertions.assertEquals(201, results.get(0).status());
+        Assertions.assertTrue(bookRepository.existsById(results.get(0).book().id()));
+        Assertions.assertEquals(400, results.get(1).status());
+        Assertions.assertNotNull(results.get(1).error());
+        Assertions.assertEquals(400, results.get(2).status());
+        Assertions.assertNotNull(results.get(2).error());
+    }
+
+    @Test
+    void shouldRejectBatchAboveMaxSize() throws Exception {
+        Author author = createDummyAuthor();
+        List<BookDto> booksToCreate = IntStream.range(0, 1001)
+                .mapToObj(i -> new BookDto(null, "batch-book" + i, author.id(), 2024, 100, 6000))
+                .toList();
+
+        mockMvc.perform(
+                        post("/books/batch")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(booksToCreate))
+                )
+                .andExpect(status().isBadRequest());
+        Assertions.assertEquals(
+                0,
+                bookService.searchAllBooks(
+                        new BookSearchFilter(author.id(), null, null, null, null, null, null, null, null, 0, 10, null, null)
+                ).books().size()
+        );
+    }
+
     @Test
     public void shouldSuccessSearchBookById() throws Exception {
         Author author = createDummyAuthor();
@@ -108,12 +185,451 @@ class BookDtoControllerTest extends AbstractTest {
                 .isEqualTo(foundBookDto);
     }
 
+    @Test
+    public void shouldNotReturnStaleBookAfterUpdate() throws Exception {
+        Author author = createDummyAuthor();
+        Book book = bookService.createBook(
+                new Book(
+                        null,
+                        "cached-book" + getRandomInt(),
+                        author.id(),
+                        2024,
+                        100,
+                        6000
+                )
+        );
+        long hitsBefore = bookCache.stats().hitCount();
+        mockMvc.perform(get("/books/{id}", book.id()))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/books/{id}", book.id()))
+                .andExpect(status().isOk());
+        Assertions.assertTrue(bookCache.stats().hitCount() > hitsBefore);
+
+        BookDto bookDtoToUpdate = new BookDto(
+                null,
+                "updated-book" + getRandomInt(),
+                author.id(),
+                2020,
+                200,
+                7000
+        );
+        mockMvc.perform(
+                        put("/books/{id}", book.id())
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(bookDtoToUpdate))
+                )
+                .andExpect(status().isOk());
+
+        String foundBookJson = mockMvc.perform(get("/books/{id}", book.id()))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        org.assertj.core.api.Assertions
+                .assertThat(objectMapper.readValue(foundBookJson, BookDto.class))
+                .usingRecursiveComparison()
+                .ignoringFields("id")
+                .isEqualTo(bookDtoToUpdate);
+    }
+
+    @Test
+    public void shouldUpdateBookWithSingleStatement() throws Exception {
+        Author author = createDummyAuthor();
+        Book book = bookService.createBook(
+                new Book(null, "book" + getRandomInt(), author.id(), 2024, 100, 6000)
+        );
+        BookDto bookDtoToUpdate = new BookDto(null, "book" + getRandomInt(), author.id(), 2000, 10, 60);
+        Statistics statistics = hibernateStatistics();
+
+        mockMvc.perform(
+                        put("/books/{id}", book.id())
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(bookDtoToUpdate))
+                )
+                .andExpect(status().isOk());
+
+        Assertions.assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    public void shouldAnswerConditionalGetWithNotModifiedWithoutLoadingBook() throws Exception {
+        Author author = createDummyAuthor();
+        Book book = bookService.createBook(
+                new Book(null, "etag-book" + getRandomInt(), author.id(), 2024, 100, 6000)
+        );
+        String eTag = mockMvc.perform(get("/books/{id}", book.id()))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+                .andReturn()
+                .getResponse()
+                .getHeader(HttpHeaders.ETAG);
+        bookCache.invalidate(book.id());
+        Statistics statistics = hibernateStatistics();
+
+        mockMvc.perform(
+                        get("/books/{id}", book.id())
+                                .header(HttpHeaders.IF_NONE_MATCH, eTag)
+                )
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        Assertions.assertEquals(0, statistics.getEntityLoadCount());
+        Assertions.assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    public void shouldAnswerUnchangedSearchWithNotModified() throws Exception {
+        Author author = createDummyAuthor();
+        bookService.createBook(
+                new Book(null, "etag-book" + getRandomInt(), author.id(), 2024, 100, 6000)
+        );
+        String eTag = mockMvc.perform(
+                        get("/books")
+                                .param("authorId", author.id().toString())
+                                .param("pageNumber", "0")
+                )
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(
+                        get("/books")
+                                .param("authorId", author.id().toString())
+                                .param("pageNumber", "0")
+                                .header(HttpHeaders.IF_NONE_MATCH, eTag)
+                )
+                .andExpect(status().isNotModified());
+
+        bookService.createBook(
+                new Book(null, "etag-book" + getRandomInt(), author.id(), 2024, 100, 6000)
+        );
+        mockMvc.perform(
+                        get("/books")
+                                .param("authorId", author.id().toString())
+                                .param("pageNumber", "0")
+                                .header(HttpHeaders.IF_NONE_MATCH, eTag)
+                )
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    public void shouldRejectUpdateWithStaleIfMatch() throws Exception {
+        Author author = createDummyAuthor();
+        Book book = bookService.createBook(
+                new Book(null, "book" + getRandomInt(), author.id(), 2024, 100, 6000)
+        );
+        BookDto bookDtoToUpdate = new BookDto(null, "book" + getRandomInt(), author.id(), 2000, 10, 60);
+        String eTag = mockMvc.perform(get("/books/{id}", book.id()))
+                .andReturn()
+                .getResponse()
+                .getHeader(HttpHeaders.ETAG);
+
+        String newETag = mockMvc.perform(
+                        put("/books/{id}", book.id())
+                                .header(HttpHeaders.IF_MATCH, eTag)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(bookDtoToUpdate))
+                )
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getHeader(HttpHeaders.ETAG);
+        Assertions.assertNotEquals(eTag, newETag);
+
+        mockMvc.perform(
+                        put("/books/{id}", book.id())
+                                .header(HttpHeaders.IF_MATCH, eTag)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(bookDtoToUpdate))
+                )
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    void shouldMatchOnlyStrongETagsOfIfMatchList() throws Exception {
+        Author author = createDummyAuthor();
+        Book book = bookService.createBook(
+                new Book(null, "book" + getRandomInt(), author.id(), 2024, 100, 6000)
+        );
+        BookDto bookDtoToUpdate = new BookDto(null, "book" + getRandomInt(), author.id(), 2000, 10, 60);
+        String eTag = mockMvc.perform(get("/books/{id}", book.id()))
+                .andReturn()
+                .getResponse()
+                .getHeader(HttpHeaders.ETAG);
+
+        for (String ifMatch : List.of("W/" + eTag, "\"not-a-version\"", "unquoted")) {
+            mockMvc.perform(
+                            put("/books/{id}", book.id())
+                                    .header(HttpHeaders.IF_MATCH, ifMatch)
+                                    .contentType(MediaType.APPLICATION_JSON)
+                                    .content(objectMapper.writeValueAsString(bookDtoToUpdate))
+                    )
+                    .andExpect(status().isPreconditionFailed());
+        }
+
+        mockMvc.perform(
+                        put("/books/{id}", book.id())
+                                .header(HttpHeaders.IF_MATCH, "W/" + eTag + ", \"-1\", " + eTag)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(bookDtoToUpdate))
+                )
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    public void shouldNotUpdateBookWithUnknownAuthor() throws Exception {
+        Author author = createDummyAuthor();
+        Book book = bookService.createBook(
+                new Book(null, "book" + getRandomInt(), author.id(), 2024, 100, 6000)
+        );
+        BookDto bookDtoToUpdate = new BookDto(null, "book" + getRandomInt(), Long.MAX_VALUE, 2000, 10, 60);
+
+        mockMvc.perform(
+                        put("/books/{id}", book.id())
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(bookDtoToUpdate))
+                )
+                .andExpect(status().is(400));
+    }
+
+    @Test
+    public void shouldReturnNotFoundWhenUpdatingMissingBook() throws Exception {
+        Author author = createDummyAuthor();
+        BookDto bookDtoToUpdate = new BookDto(null, "book" + getRandomInt(), author.id(), 2000, 10, 60);
+
+        mockMvc.perform(
+                        put("/books/{id}", Long.MAX_VALUE)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(bookDtoToUpdate))
+                )
+                .andExpect(status().is(404));
+    }
+
+    @Test
+    public void shouldDeleteBookWithSingleStatement() throws Exception {
+        Author author = createDummyAuthor();
+        Book book = bookService.createBook(
+                new Book(null, "book" + getRandomInt(), author.id(), 2024, 100, 6000)
+        );
+        Statistics statistics = hibernateStatistics();
+
+        mockMvc.perform(delete("/books/{id}", book.id()))
+                .andExpect(status().isNoContent());
+
+        Assertions.assertEquals(1, statistics.getPrepareStatementCount());
+        Assertions.assertFalse(bookRepository.existsById(book.id()));
+        mockMvc.perform(delete("/books/{id}", book.id()))
+                .andExpect(status().is(404));
+    }
+
     @Test
     public void shouldReturnNotFoundWhenNotPresent() throws Exception {
         mockMvc.perform(get("/books/{id}", Integer.MAX_VALUE))
                 .andExpect(status().is(404));
     }
 
+    @Test
+    public void shouldWalkAllBooksOfAuthorByCursor() throws Exception {
+        Author author = createDummyAuthor();
+        List<Long> createdIds = IntStream.range(0, 7)
+                .mapToObj(i -> bookService.createBook(
+                        new Book(
+                                null,
+                                "cursor-book" + getRandomInt(),
+                                author.id(),
+                                2024,
+                                100,
+                                6000
+                        )
+                ).id())
+                .toList();
+
+        List<Long> foundIds = new ArrayList<>();
+        String cursor = "";
+        int requests = 0;
+        while (cursor != null) {
+            MvcResult result = mockMvc.perform(
+                            get("/books")
+                                    .param("authorId", author.id().toString())
+                                    .param("pageSize", "3")
+                                    .param("cursor", cursor)
+                    )
+                    .andExpect(status().isOk())
+                    .andReturn();
+
+            List<BookDto> page = objectMapper.readValue(
+                    result.getResponse().getContentAsString(),
+                    new TypeReference<List<BookDto>>() {
+                    }
+            );
+            page.forEach(bookDto -> foundIds.add(bookDto.id()));
+            cursor = result.getResponse().getHeader("X-Next-Cursor");
+            requests++;
+        }
+
+        Assertions.assertEquals(3, requests);
+        Assertions.assertEquals(createdIds, foundIds);
+    }
+
+    @Test
+    public void shouldFindBooksByNameWords() throws Exception {
+        Author author = createDummyAuthor();
+        String word = "fts" + Integer.toUnsignedString(getRandomInt());
+        Book matchingBook = bookService.createBook(
+                new Book(null, "Tales of " + word, author.id(), 2024, 100, 6000)
+        );
+        bookService.createBook(
+                new Book(null, "Tales of nothing", author.id(), 2024, 100, 6000)
+        );
+
+        String foundBooksJson = mockMvc.perform(
+                        get("/books")
+                                .param("q", word)
+                                .param("authorId", author.id().toString())
+                                .param("pageNumber", "0")
+                )
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        List<BookDto> foundBooks = objectMapper.readValue(
+                foundBooksJson,
+                new TypeReference<List<BookDto>>() {
+                }
+        );
+        Assertions.assertEquals(1, foundBooks.size());
+        Assertions.assertEquals(matchingBook.id(), foundBooks.get(0).id());
+    }
+
+    @Test
+    public void shouldFilterByRangesAndNamePrefixAndSort() throws Exception {
+        Author author = createDummyAuthor();
+        String prefix = "Range-" + Integer.toUnsignedString(getRandomInt());
+        Book cheapOld = bookService.createBook(new Book(null, prefix + "-a", author.id(), 1990, 100, 100));
+        Book expensiveOld = bookService.createBook(new Book(null, prefix + "-b", author.id(), 1995, 200, 900));
+        bookService.createBook(new Book(null, prefix + "-c", author.id(), 2020, 300, 500));
+        bookService.createBook(new Book(null, "other-" + prefix, author.id(), 1990, 100, 100));
+
+        String foundBooksJson = mockMvc.perform(
+                        get("/books")
+                                .param("namePrefix", prefix.toLowerCase())
+                                .param("minCost", "100")
+                                .param("maxYear", "2000")
+                                .param("minPages", "50")
+                                .param("sort", "-cost,name")
+                                .param("pageNumber", "0")
+                                .param("pageSize", "10")
+                )
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        List<BookDto> foundBooks = objectMapper.readValue(
+                foundBooksJson,
+                new TypeReference<List<BookDto>>() {
+                }
+        );
+        Assertions.assertEquals(
+                List.of(expensiveOld.id(), cheapOld.id()),
+                foundBooks.stream()
+                        .map(BookDto::id)
+                        .toList()
+        );
+    }
+
+    @Test
+    public void shouldReturnBadRequestWhenSortFieldIsUnknown() throws Exception {
+        mockMvc.perform(get("/books").param("sort", "author_id; DROP TABLE books"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void shouldNegotiateBinaryFormatsAndKeepJsonAsDefault() throws Exception {
+        Author author = createDummyAuthor();
+        Book book = bookService.createBook(
+                new Book(null, "cbor-book" + getRandomInt(), author.id(), 2024, 100, 6000)
+        );
+
+        mockMvc.perform(get("/books/{id}", book.id()))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+
+        byte[] cborBook = mockMvc.perform(
+                        get("/books/{id}", book.id())
+                                .accept(MediaType.APPLICATION_CBOR)
+                )
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_CBOR))
+                .andReturn()
+                .getResponse()
+                .getContentAsByteArray();
+
+        Assertions.assertEquals(
+                new BookDto(book.id(), book.name(), author.id(), 2024, 100, 6000),
+                new CBORMapper().readValue(cborBook, BookDto.class)
+        );
+    }
+
+    @Test
+    public void shouldReturnBadRequestWhenCursorIsMalformed() throws Exception {
+        mockMvc.perform(get("/books").param("cursor", "not-a-cursor"))
+                .andExpect(status().is(400));
+    }
+
+    @Test
+    public void shouldExportBooksAsNdjson() throws Exception {
+        Author author = createDummyAuthor();
+        Book book = bookService.createBook(
+                new Book(
+                        null,
+                        "export-book" + getRandomInt(),
+                        author.id(),
+                        2024,
+                        100,
+                        6000
+                )
+        );
+
+        MvcResult result = mockMvc.perform(get("/books/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        result.getAsyncResult();
+
+        List<BookDto> exportedBooks = new ArrayList<>();
+        for (String line : result.getResponse().getContentAsString().split("\n")) {
+            exportedBooks.add(objectMapper.readValue(line, BookDto.class));
+        }
+
+        org.assertj.core.api.Assertions.assertThat(exportedBooks)
+                .anySatisfy(exportedBook -> org.assertj.core.api.Assertions
+                        .assertThat(book)
+                        .usingRecursiveComparison()
+                        .isEqualTo(exportedBook));
+    }
+
+    private Statistics hibernateStatistics() {
+        Statistics statistics = entityManagerFactory
+                .unwrap(SessionFactory.class)
+                .getStatistics();
+        statistics.clear();
+        return statistics;
+    }
+
+    @Test
+    void shouldNotReportOtherConstraintViolationsAsMissingAuthor() {
+        Author author = createDummyAuthor();
+        Book bookWithTooLongName = new Book(null, "x".repeat(300), author.id(), 2024, 100, 100);
+
+        Assertions.assertThrows(
+                DataIntegrityViolationException.class,
+                () -> bookService.createBook(bookWithTooLongName)
+        );
+    }
+
     private Author createDummyAuthor() {
         return authorService.createAuthor(
                 new Author(
@@ -0,0 +1,109 @@
+package dev.vudovenko.onlinelibrary.books;
+
+import dev.vudovenko.onlinelibrary.AbstractTest;
+import dev.vudovenko.onlinelibrary.author.Author;
+import dev.vudovenko.onlinelibrary.author.AuthorService;
+import dev.vudovenko.onlinelibrary.book.BookCursorCodec;
+import dev.vudovenko.onlinelibrary.book.BookSearchFilter;
+import dev.vudovenko.onlinelibrary.book.BookService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares the cost of the first and the 10 000th page for offset and cursor pagination.
+ * Run with {@code mvn -Pbenchmark test}.
+ */
+@Tag("benchmark")
+class BookPaginationBenchmarkTest extends AbstractTest {
+
+    private static final int PAGE_SIZE = 10;
+    private static final int DEEP_PAGE = 10_000;
+    private static final int WARMUP_RUNS = 20;
+    private static final int MEASURED_RUNS = 50;
+
+    @Autowired
+    private BookService bookService;
+    @Autowired
+    private AuthorService authorService;
+    @Autowired
+    private BookCursorCodec cursorCodec;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void deepCursorPageShouldCostTheSameAsFirstPage() {
+        Author author = authorService.createAuthor(
+                new Author(null, "benchmark-author" + getRandomInt(), 1900, List.of())
+        );
+        jdbcTemplate.update(
+                """
+                        INSERT INTO books (id, name, author_id, pub_year, page_num, cost)
+                        SELECT nextval('books_seq'), 'benchmark-book-' || g, ?, 2000, 100, g % 1000
+                        FROM generate_series(1, ?) g
+                        """,
+                author.id(),
+                PAGE_SIZE * (DEEP_PAGE + 1)
+        );
+        jdbcTemplate.execute("ANALYZE books");
+
+        Long deepPageLastSeenId = jdbcTemplate.queryForObject(
+                "SELECT id FROM books WHERE author_id = ? ORDER BY id OFFSET ? LIMIT 1",
+                Long.class,
+                author.id(),
+                PAGE_SIZE * DEEP_PAGE - 1
+        );
+
+        long offsetFirst = medianNanos(offsetFilter(author.id(), 0));
+        long offsetDeep = medianNanos(offsetFilter(author.id(), DEEP_PAGE));
+        long cursorFirst = medianNanos(cursorFilter(author.id(), ""));
+        long cursorDeep = medianNanos(cursorFilter(author.id(), cursorCodec.encode(deepPageLastSeenId)));
+
+        System.out.printf(
+                "page size %d, median over %d runs:%n"
+                        + "  offset page 1:      %8d us%n"
+                        + "  offset page %d: %8d us%n"
+                        + "  cursor page 1:      %8d us%n"
+                        + "  cursor page %d: %8d us%n",
+                PAGE_SIZE, MEASURED_RUNS,
+                offsetFirst / 1000,
+                DEEP_PAGE, offsetDeep / 1000,
+                cursorFirst / 1000,
+                DEEP_PAGE, cursorDeep / 1000
+        );
+
+        assertThat(cursorDeep).isLessThan(cursorFirst * 3 + 2_000_000);
+    }
+
+    private BookSearchFilter offsetFilter(Long authorId, int pageNumber) {
+        return new BookSearchFilter(
+                authorId, null, null, null, null, null, null, null, null, pageNumber, PAGE_SIZE, null, null
+        );
+    }
+
+    private BookSearchFilter cursorFilter(Long authorId, String cursor) {
+        return new BookSearchFilter(
+                authorId, null, null, null, null, null, null, null, null, null, PAGE_SIZE, cursor, null
+        );
+    }
+
+    private long medianNanos(BookSearchFilter filter) {
+        for (int i = 0; i < WARMUP_RUNS; i++) {
+            bookService.searchAllBooks(filter);
+        }
+        long[] timings = new long[MEASURED_RUNS];
+        for (int i = 0; i < MEASURED_RUNS; i++) {
+            long start = System.nanoTime();
+            bookService.searchAllBooks(filter);
+            timings[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(timings);
+        return timings[MEASURED_RUNS / 2];
+    }
+}
@@ -0,0 +1,212 @@
+package dev.vudovenko.onlinelibrary.books;
+
+import dev.vudovenko.onlinelibrary.AbstractTest;
+import dev.vudovenko.onlinelibrary.book.BookSearchFilter;
+import dev.vudovenko.onlinelibrary.book.BookSearchQuery;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks that the main queries of the book and author endpoints are served by the indexes
+ * of the migrations and never scan the whole books table.
+ * <p>
+ * The statements are the ones the application sends, with their parameters bound, and are
+ * planned as generic plans: a prepared statement switches to one after five executions,
+ * and a generic plan must not rely on seeing the values. The catalog is seeded in the
+ * transaction of each test, which is rolled back.
+ */
+class BookQueryPlanTest extends AbstractTest {
+
+    private static final int AUTHORS = 50;
+    private static final int BOOKS_PER_AUTHOR = 400;
+    private static final Pattern NAMED_PARAMETER = Pattern.compile("(?<!:):([a-zA-Z]\\w*)");
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void searchByAuthorShouldUseIndex() {
+        assertGenericPlanUses(
+                authorIds -> BookSearchQuery.page(filter(authorIds.get(0), null, null, null, null), 10, 0),
+                "idx_books_author_id_id"
+        );
+    }
+
+    @Test
+    void cursorPageOfAuthorShouldUseIndex() {
+        assertGenericPlanUses(
+                authorIds -> BookSearchQuery.after(filter(authorIds.get(0), null, null, null, null), 0, 10),
+                "idx_books_author_id_id"
+        );
+    }
+
+    @Test
+    void searchByAuthorAndCostShouldUseIndex() {
+        assertGenericPlanUses(
+                authorIds -> BookSearchQuery.page(filter(authorIds.get(0), 100, null, "cost", null), 10, 0),
+                "idx_books_author_id_cost"
+        );
+    }
+
+    @Test
+    void searchByCostShouldUseIndex() {
+        assertGenericPlanUses(
+                authorIds -> BookSearchQuery.page(filter(null, 5, null, "cost", null), 10, 0),
+                "idx_books_cost_id"
+        );
+    }
+
+    @Test
+    void searchByNamePrefixShouldUseIndex() {
+        assertGenericPlanUses(
+                authorIds -> BookSearchQuery.page(filter(null, null, "plan-book-1234", null, null), 10, 0),
+                "idx_books_name_lower"
+        );
+    }
+
+    @Test
+    void fullTextSearchShouldUseIndex() {
+        assertGenericPlanUses(
+                authorIds -> BookSearchQuery.page(filter(null, null, null, null, "42"), 10, 0),
+                "idx_books_name_tsv"
+        );
+    }
+
+    @Test
+    void booksOfAuthorsPageShouldUseIndex() {
+        assertGenericPlanUses(
+                authorIds -> {
+                    Map<String, Object> parameters = new LinkedHashMap<>();
+                    for (int i = 1; i <= 5; i++) {
+                        parameters.put("authorId" + i, authorIds.get(i));
+                    }
+                    return new BookSearchQuery(
+                            """
+                                    SELECT * FROM books
+                                    WHERE author_id IN (:authorId1, :authorId2, :authorId3, :authorId4, :authorId5)
+                                    ORDER BY id
+                                    """,
+                            parameters,
+                            false
+                    );
+                },
+                "idx_books_author_id_id"
+        );
+    }
+
+    @Test
+    void clearingAuthorFromBooksShouldUseIndex() {
+        assertGenericPlanUses(
+                authorIds -> new BookSearchQuery(
+                        "UPDATE books SET author_id = NULL WHERE author_id = :authorId",
+                        Map.of("authorId", authorIds.get(0)),
+                        false
+                ),
+                "idx_books_author_id_id"
+        );
+    }
+
+    private static BookSearchFilter filter(Long authorId, Integer maxCost, String namePrefix, String sort, String q) {
+        return new BookSearchFilter(
+                authorId, null, maxCost, null, null, null, null, namePrefix, sort, 0, 10, null, q
+        );
+    }
+
+    private void assertGenericPlanUses(Function<List<Long>, BookSearchQuery> statement, String indexName) {
+        String plan = transactionTemplate.execute(status -> {
+            status.setRollbackOnly();
+            BookSearchQuery query = statement.apply(seedCatalog());
+            jdbcTemplate.execute("SET LOCAL plan_cache_mode = force_generic_plan");
+            return explainPrepared(query);
+        });
+
+        assertThat(plan)
+                .as(plan)
+                .contains(" " + indexName + " ")
+                .doesNotContain("Seq Scan on books");
+    }
+
+    /**
+     * Authors and books are inserted in the order the application creates them, so the
+     * books of one author are next to each other.
+     */
+    private List<Long> seedCatalog() {
+        List<Long> authorIds = jdbcTemplate.queryForList(
+                """
+                        INSERT INTO authors (name, birth_year)
+                        SELECT 'plan-author-' || gen_random_uuid(), 1900
+                        FROM generate_series(1, ?)
+                        RETURNING id
+                        """,
+                Long.class,
+                AUTHORS
+        );
+        jdbcTemplate.update(
+                """
+                        INSERT INTO books (id, name, author_id, pub_year, page_num, cost)
+                        SELECT nextval('books_seq'),
+                               'plan-book-' || g,
+                               (?::bigint[])[1 + (g - 1) / ?],
+                               1900 + g % 100,
+                               1 + g % 1000,
+                               g % 10000
+                        FROM generate_series(1, ?) g
+                        """,
+                authorIds.toArray(Long[]::new),
+                BOOKS_PER_AUTHOR,
+                AUTHORS * BOOKS_PER_AUTHOR
+        );
+        jdbcTemplate.execute("ANALYZE books");
+        return authorIds;
+    }
+
+    private String explainPrepared(BookSearchQuery query) {
+        List<Object> arguments = new ArrayList<>();
+        Map<String, Integer> positions = new LinkedHashMap<>();
+        Matcher matcher = NAMED_PARAMETER.matcher(query.sql());
+        StringBuilder sql = new StringBuilder();
+        while (matcher.find()) {
+            String name = matcher.group(1);
+            Integer position = positions.computeIfAbsent(name, key -> {
+                arguments.add(query.parameters().get(key));
+                return arguments.size();
+            });
+            matcher.appendReplacement(sql, "\\$" + position);
+        }
+        matcher.appendTail(sql);
+
+        // prepared statements belong to the session and survive the rollback
+        jdbcTemplate.execute("PREPARE plan_test AS " + sql);
+        List<String> plan = jdbcTemplate.queryForList(
+                "EXPLAIN EXECUTE plan_test(%s)".formatted(
+                        arguments.stream()
+                                .map(BookQueryPlanTest::toLiteral)
+                                .collect(Collectors.joining(", "))
+                ),
+                String.class
+        );
+        jdbcTemplate.execute("DEALLOCATE plan_test");
+        return String.join("\n", plan);
+    }
+
+    private static String toLiteral(Object value) {
+        return value instanceof Number
+                ? value.toString()
+                : "'" + value.toString().replace("'", "''") + "'";
+    }
+}
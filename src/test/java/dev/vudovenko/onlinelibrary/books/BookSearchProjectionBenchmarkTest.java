@@ -0,0 +1,143 @@
+package dev.vudovenko.onlinelibrary.books;
+
+import dev.vudovenko.onlinelibrary.AbstractTest;
+import dev.vudovenko.onlinelibrary.author.Author;
+import dev.vudovenko.onlinelibrary.author.AuthorService;
+import dev.vudovenko.onlinelibrary.book.Book;
+import dev.vudovenko.onlinelibrary.book.BookEntity;
+import dev.vudovenko.onlinelibrary.book.BookEntityConverter;
+import dev.vudovenko.onlinelibrary.book.BookRepository;
+import dev.vudovenko.onlinelibrary.book.BookSearchFilter;
+import dev.vudovenko.onlinelibrary.book.BookSearchQuery;
+import dev.vudovenko.onlinelibrary.book.VersionFingerprint;
+import dev.vudovenko.onlinelibrary.book.VersionedBook;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares allocation per request and throughput of a search page read as managed
+ * entities, the way it was done before, and as projected rows.
+ * Run with {@code mvn -Pbenchmark test}.
+ */
+@Tag("benchmark")
+class BookSearchProjectionBenchmarkTest extends AbstractTest {
+
+    private static final int PAGE_SIZE = 100;
+    private static final int WARMUP_RUNS = 200;
+    private static final int MEASURED_RUNS = 1_000;
+
+    @Autowired
+    private AuthorService authorService;
+    @Autowired
+    private BookRepository bookRepository;
+    @Autowired
+    private BookEntityConverter entityConverter;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Test
+    void projectionShouldAllocateLessThanEntities() {
+        Author author = authorService.createAuthor(
+                new Author(null, "benchmark-author" + getRandomInt(), 1900, List.of())
+        );
+        jdbcTemplate.update(
+                """
+                        INSERT INTO books (id, name, author_id, pub_year, page_num, cost)
+                        SELECT nextval('books_seq'), 'benchmark-book-' || g, ?, 2000, 100, g % 1000
+                        FROM generate_series(1, ?) g
+                        """,
+                author.id(),
+                PAGE_SIZE
+        );
+
+        BookSearchFilter filter = new BookSearchFilter(
+                author.id(), null, null, null, null, null, null, null, null, 0, PAGE_SIZE, null, null
+        );
+        BookSearchQuery cached = BookSearchQuery.page(filter, PAGE_SIZE, 0);
+        // both paths go to the database on every run
+        BookSearchQuery query = new BookSearchQuery(cached.sql(), cached.parameters(), false);
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        Result entities = measure(() -> readOnly.execute(status -> searchEntities(query)));
+        Result projection = measure(() -> readOnly.execute(status -> searchProjected(query)));
+
+        System.out.printf(
+                "page size %d, %d runs:%n"
+                        + "  entities:   %10d bytes/request %10.1f requests/s%n"
+                        + "  projection: %10d bytes/request %10.1f requests/s%n",
+                PAGE_SIZE, MEASURED_RUNS,
+                entities.bytesPerRequest(), entities.requestsPerSecond(),
+                projection.bytesPerRequest(), projection.requestsPerSecond()
+        );
+
+        assertThat(projection.bytesPerRequest()).isLessThan(entities.bytesPerRequest());
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Book> searchEntities(BookSearchQuery query) {
+        Query nativeQuery = entityManager.createNativeQuery(query.sql(), BookEntity.class);
+        query.parameters().forEach(nativeQuery::setParameter);
+        List<BookEntity> books = nativeQuery.getResultList();
+
+        VersionFingerprint fingerprint = new VersionFingerprint();
+        books.forEach(book -> fingerprint.add(book.getId(), book.getVersion()));
+        fingerprint.build();
+        return books.stream()
+                .map(entityConverter::toDomain)
+                .toList();
+    }
+
+    private List<Book> searchProjected(BookSearchQuery query) {
+        List<VersionedBook> books = bookRepository.search(query);
+
+        VersionFingerprint fingerprint = new VersionFingerprint();
+        books.forEach(book -> fingerprint.add(book.book().id(), book.version()));
+        fingerprint.build();
+        return books.stream()
+                .map(VersionedBook::book)
+                .toList();
+    }
+
+    private static Result measure(Supplier<List<Book>> search) {
+        for (int i = 0; i < WARMUP_RUNS; i++) {
+            assertThat(search.get()).hasSize(PAGE_SIZE);
+        }
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+        long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_RUNS; i++) {
+            search.get();
+        }
+        long nanos = System.nanoTime() - start;
+        long allocated = threads.getCurrentThreadAllocatedBytes() - allocatedBefore;
+
+        return new Result(allocated / MEASURED_RUNS, MEASURED_RUNS / (nanos / 1e9));
+    }
+
+    private record Result(
+
+            long bytesPerRequest,
+            double requestsPerSecond
+    ) {
+    }
+}
@@ -0,0 +1,66 @@
+package dev.vudovenko.onlinelibrary.books;
+
+import dev.vudovenko.onlinelibrary.book.BookSearchFilter;
+import dev.vudovenko.onlinelibrary.book.BookSearchQuery;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+class BookSearchQueryTest {
+
+    @Test
+    void shouldOnlyContainSuppliedPredicates() {
+        BookSearchQuery query = BookSearchQuery.page(
+                new BookSearchFilter(7L, null, 500, null, null, null, null, null, null, 0, 10, null, null),
+                10,
+                20
+        );
+
+        Assertions.assertEquals(
+                "SELECT b.id, b.name, b.author_id, b.pub_year, b.page_num, b.cost, b.version, b.updated_at"
+                        + " FROM books b"
+                        + " WHERE b.author_id = :authorId AND b.cost < :maxCost"
+                        + " ORDER BY b.id LIMIT :limit OFFSET :offset",
+                query.sql()
+        );
+        Assertions.assertEquals(
+                Map.of("authorId", 7L, "maxCost", 500, "limit", 10, "offset", 20L),
+                query.parameters()
+        );
+        Assertions.assertTrue(query.cacheable());
+    }
+
+    @Test
+    void shouldTurnNamePrefixIntoRangeAndSortWithIdAsTieBreaker() {
+        BookSearchQuery query = BookSearchQuery.page(
+                new BookSearchFilter(null, null, null, 1990, null, null, null, "Wa", "-cost, pubYear", 0, 10, null, null),
+                10,
+                0
+        );
+
+        Assertions.assertEquals(
+                "SELECT b.id, b.name, b.author_id, b.pub_year, b.page_num, b.cost, b.version, b.updated_at"
+                        + " FROM books b"
+                        + " WHERE b.pub_year >= :minYear"
+                        + " AND lower(b.name) ~>=~ :namePrefix AND lower(b.name) ~<~ :namePrefixEnd"
+                        + " ORDER BY b.cost DESC, b.pub_year, b.id LIMIT :limit OFFSET :offset",
+                query.sql()
+        );
+        Assertions.assertEquals("wa", query.parameters().get("namePrefix"));
+        Assertions.assertEquals("wb", query.parameters().get("namePrefixEnd"));
+        Assertions.assertFalse(query.cacheable());
+    }
+
+    @Test
+    void shouldRejectUnknownSortField() {
+        BookSearchFilter filter = new BookSearchFilter(
+                null, null, null, null, null, null, null, null, "cost; DROP TABLE books", 0, 10, null, null
+        );
+
+        Assertions.assertThrows(
+                IllegalArgumentException.class,
+                () -> BookSearchQuery.page(filter, 10, 0)
+        );
+    }
+}
@@ -0,0 +1,108 @@
+package dev.vudovenko.onlinelibrary.books;
+
+import dev.vudovenko.onlinelibrary.AbstractTest;
+import dev.vudovenko.onlinelibrary.author.Author;
+import dev.vudovenko.onlinelibrary.author.AuthorService;
+import dev.vudovenko.onlinelibrary.book.Book;
+import dev.vudovenko.onlinelibrary.book.BookDto;
+import dev.vudovenko.onlinelibrary.book.BookService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.LongFunction;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+
+/**
+ * Prints statements per request and median latency of the write endpoints.
+ * Run with {@code mvn -Pbenchmark test} on two commits to compare them.
+ */
+@Tag("benchmark")
+class BookWritePathBenchmarkTest extends AbstractTest {
+
+    private static final int RUNS = 200;
+
+    @Autowired
+    private BookService bookService;
+    @Autowired
+    private AuthorService authorService;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void printWritePathCosts() throws Exception {
+        Author author = createAuthor();
+        String bookJson = objectMapper.writeValueAsString(
+                new BookDto(null, "updated-book", author.id(), 2000, 10, 60)
+        );
+
+        measure("PUT /books/{id}", id -> put("/books/{id}", id)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(bookJson), author.id());
+        measure("DELETE /books/{id}", id -> delete("/books/{id}", id), author.id());
+
+        long[] timings = new long[RUNS];
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        long statements = 0;
+        for (int i = 0; i < RUNS; i++) {
+            Author authorToDelete = createAuthor();
+            createBook(authorToDelete.id());
+            statistics.clear();
+            long start = System.nanoTime();
+            mockMvc.perform(delete("/authors/{id}", authorToDelete.id()));
+            timings[i] = System.nanoTime() - start;
+            statements += statistics.getPrepareStatementCount();
+        }
+        print("DELETE /authors/{id}", statements, timings);
+    }
+
+    private void measure(
+            String endpoint,
+            LongFunction<RequestBuilder> request,
+            Long authorId
+    ) throws Exception {
+        long[] timings = new long[RUNS];
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        long statements = 0;
+        for (int i = 0; i < RUNS; i++) {
+            Book book = createBook(authorId);
+            statistics.clear();
+            long start = System.nanoTime();
+            mockMvc.perform(request.apply(book.id()));
+            timings[i] = System.nanoTime() - start;
+            statements += statistics.getPrepareStatementCount();
+        }
+        print(endpoint, statements, timings);
+    }
+
+    private void print(String endpoint, long statements, long[] timings) {
+        Arrays.sort(timings);
+        System.out.printf(
+                "%-22s %5.1f statements/request, median %6d us%n",
+                endpoint,
+                (double) statements / RUNS,
+                timings[RUNS / 2] / 1000
+        );
+    }
+
+    private Author createAuthor() {
+        return authorService.createAuthor(
+                new Author(null, "benchmark-author" + getRandomInt(), 1900, List.of())
+        );
+    }
+
+    private Book createBook(Long authorId) {
+        return bookService.createBook(
+                new Book(null, "benchmark-book", authorId, 2000, 100, 100)
+        );
+    }
+}
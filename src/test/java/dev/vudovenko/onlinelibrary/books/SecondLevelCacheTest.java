@@ -0,0 +1,256 @@
+package dev.vudovenko.onlinelibrary.books;
+
+import dev.vudovenko.onlinelibrary.AbstractTest;
+import dev.vudovenko.onlinelibrary.author.Author;
+import dev.vudovenko.onlinelibrary.author.AuthorEntity;
+import dev.vudovenko.onlinelibrary.author.AuthorRepository;
+import dev.vudovenko.onlinelibrary.author.AuthorService;
+import dev.vudovenko.onlinelibrary.book.Book;
+import dev.vudovenko.onlinelibrary.book.BookEntity;
+import dev.vudovenko.onlinelibrary.book.BookRepository;
+import dev.vudovenko.onlinelibrary.book.BookSearchFilter;
+import dev.vudovenko.onlinelibrary.book.BookService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class SecondLevelCacheTest extends AbstractTest {
+
+    @Autowired
+    private BookService bookService;
+    @Autowired
+    private AuthorService authorService;
+    @Autowired
+    private BookRepository bookRepository;
+    @Autowired
+    private AuthorRepository authorRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void shouldServeRepeatedReadsFromCacheRegions() {
+        Author author = createAuthor();
+        Book book = createBook(author.id());
+        loadBook(book.id());
+        loadAuthorBookIds(author.id());
+        searchBookIds(author.id());
+        Statistics statistics = hibernateStatistics();
+
+        loadBook(book.id());
+        loadAuthorBookIds(author.id());
+        searchBookIds(author.id());
+
+        Assertions.assertEquals(0, statistics.getPrepareStatementCount());
+        Assertions.assertTrue(statistics.getDomainDataRegionStatistics(BookEntity.CACHE_REGION).getHitCount() > 0);
+        Assertions.assertTrue(statistics.getDomainDataRegionStatistics(AuthorEntity.CACHE_REGION).getHitCount() > 0);
+        Assertions.assertTrue(statistics.getDomainDataRegionStatistics(AuthorEntity.BOOKS_CACHE_REGION).getHitCount() > 0);
+        Assertions.assertEquals(1, statistics.getQueryCacheHitCount());
+    }
+
+    @Test
+    void shouldNotReadStaleDataAfterCreate() {
+        Author author = createAuthor();
+        Book first = createBook(author.id());
+        warmUp(first.id(), author.id());
+
+        Book second = createBook(author.id());
+
+        Assertions.assertEquals(Set.of(first.id(), second.id()), loadAuthorBookIds(author.id()));
+        Assertions.assertEquals(List.of(first.id(), second.id()), searchBookIds(author.id()));
+    }
+
+    @Test
+    void shouldNotReadStaleDataAfterBatchCreate() {
+        Author author = createAuthor();
+        Book first = createBook(author.id());
+        warmUp(first.id(), author.id());
+
+        List<Long> createdIds = bookService.createBooks(List.of(
+                        new Book(null, "cache-book" + getRandomInt(), author.id(), 2000, 100, 300),
+                        new Book(null, "cache-book" + getRandomInt(), author.id(), 2000, 100, 300)
+                ))
+                .stream()
+                .map(result -> result.book().id())
+                .toList();
+
+        Assertions.assertEquals(Set.of(first.id(), createdIds.get(0), createdIds.get(1)), loadAuthorBookIds(author.id()));
+        Assertions.assertEquals(List.of(first.id(), createdIds.get(0), createdIds.get(1)), searchBookIds(author.id()));
+    }
+
+    @Test
+    void shouldNotReadStaleDataAfterImport() throws Exception {
+        Author author = createAuthor();
+        Book first = createBook(author.id());
+        warmUp(first.id(), author.id());
+
+        mockMvc.perform(
+                        post("/catalog/imports")
+                                .contentType("text/csv")
+                                .content("name,authorId,pubYear,pageNum,cost\nimported,%d,2000,100,300\n".formatted(author.id()))
+                )
+                .andExpect(status().isOk());
+
+        Assertions.assertEquals(2, loadAuthorBookIds(author.id()).size());
+        Assertions.assertEquals(2, searchBookIds(author.id()).size());
+    }
+
+    @Test
+    void shouldNotCacheRowReadBeforeUpdateCommitted() throws Exception {
+        Author author = createAuthor();
+        Book book = createBook(author.id());
+        CountDownLatch snapshotTaken = new CountDownLatch(1);
+        CountDownLatch updated = new CountDownLatch(1);
+        ExecutorService reader = Executors.newSingleThreadExecutor();
+        try {
+            // reads the old row after the update committed, like a reader that was slower than the writer
+            Future<Integer> readCost = reader.submit(() -> transactionTemplate.execute(status -> {
+                jdbcTemplate.execute("SET TRANSACTION ISOLATION LEVEL REPEATABLE READ");
+                jdbcTemplate.queryForObject("SELECT 1", Integer.class);
+                snapshotTaken.countDown();
+                awaitUninterruptibly(updated);
+                return bookRepository.findById(book.id()).orElseThrow().getCost();
+            }));
+            snapshotTaken.await();
+            bookService.updateBook(
+                    book.id(),
+                    new Book(null, book.name(), author.id(), 2000, 100, 999)
+            );
+            updated.countDown();
+
+            Assertions.assertEquals(300, readCost.get());
+        } finally {
+            reader.shutdownNow();
+        }
+        Assertions.assertEquals(999, loadBook(book.id()).getCost());
+    }
+
+    @Test
+    void shouldNotReadStaleDataAfterNativeUpdate() {
+        Author author = createAuthor();
+        Author otherAuthor = createAuthor();
+        Book book = createBook(author.id());
+        warmUp(book.id(), author.id());
+        loadAuthorBookIds(otherAuthor.id());
+        searchBookIds(otherAuthor.id());
+
+        bookService.updateBook(
+                book.id(),
+                new Book(null, "updated-book" + getRandomInt(), otherAuthor.id(), 2001, 200, 700)
+        );
+
+        BookEntity updatedBook = loadBook(book.id());
+        Assertions.assertEquals(otherAuthor.id(), updatedBook.getAuthorId());
+        Assertions.assertEquals(700, updatedBook.getCost());
+        Assertions.assertEquals(Set.of(), loadAuthorBookIds(author.id()));
+        Assertions.assertEquals(Set.of(book.id()), loadAuthorBookIds(otherAuthor.id()));
+        Assertions.assertEquals(List.of(), searchBookIds(author.id()));
+        Assertions.assertEquals(List.of(book.id()), searchBookIds(otherAuthor.id()));
+    }
+
+    @Test
+    void shouldNotReadStaleDataAfterDelete() {
+        Author author = createAuthor();
+        Book book = createBook(author.id());
+        warmUp(book.id(), author.id());
+
+        bookService.deleteBook(book.id());
+
+        Assertions.assertTrue(bookRepository.findById(book.id()).isEmpty());
+        Assertions.assertFalse(bookRepository.existsById(book.id()));
+        Assertions.assertEquals(Set.of(), loadAuthorBookIds(author.id()));
+        Assertions.assertEquals(List.of(), searchBookIds(author.id()));
+    }
+
+    @Test
+    void shouldNotReadStaleDataAfterAuthorIsRemovedFromBooks() {
+        Author author = createAuthor();
+        Book book = createBook(author.id());
+        warmUp(book.id(), author.id());
+        Assertions.assertTrue(authorRepository.existsById(author.id()));
+
+        authorService.deleteAuthor(author.id());
+
+        Assertions.assertNull(loadBook(book.id()).getAuthorId());
+        Assertions.assertTrue(authorRepository.findById(author.id()).isEmpty());
+        Assertions.assertFalse(authorRepository.existsById(author.id()));
+        Assertions.assertEquals(List.of(), searchBookIds(author.id()));
+    }
+
+    private static void awaitUninterruptibly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void warmUp(Long bookId, Long authorId) {
+        loadBook(bookId);
+        loadAuthorBookIds(authorId);
+        searchBookIds(authorId);
+    }
+
+    private BookEntity loadBook(Long id) {
+        return bookRepository.findById(id).orElseThrow();
+    }
+
+    private Set<Long> loadAuthorBookIds(Long authorId) {
+        return transactionTemplate.execute(status -> authorRepository.findById(authorId)
+                .orElseThrow()
+                .getBooks()
+                .stream()
+                .map(BookEntity::getId)
+                .collect(Collectors.toSet()));
+    }
+
+    private List<Long> searchBookIds(Long authorId) {
+        return bookService.searchAllBooks(
+                        new BookSearchFilter(authorId, null, null, null, null, null, null, null, null, 0, 10, null, null)
+                )
+                .books()
+                .stream()
+                .map(Book::id)
+                .toList();
+    }
+
+    private Statistics hibernateStatistics() {
+        Statistics statistics = entityManagerFactory
+                .unwrap(SessionFactory.class)
+                .getStatistics();
+        statistics.clear();
+        return statistics;
+    }
+
+    private Author createAuthor() {
+        return authorService.createAuthor(
+                new Author(null, "cache-author" + getRandomInt(), 1900, List.of())
+        );
+    }
+
+    private Book createBook(Long authorId) {
+        return bookService.createBook(
+                new Book(null, "cache-book" + getRandomInt(), authorId, 2000, 100, 300)
+        );
+    }
+}
@@ -0,0 +1,170 @@
+package dev.vudovenko.onlinelibrary.catalog;
+
+import dev.vudovenko.onlinelibrary.AbstractTest;
+import dev.vudovenko.onlinelibrary.author.Author;
+import dev.vudovenko.onlinelibrary.author.AuthorService;
+import dev.vudovenko.onlinelibrary.book.Book;
+import dev.vudovenko.onlinelibrary.book.BookService;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class CatalogExportControllerTest extends AbstractTest {
+
+    /**
+     * Every file of the PostgreSQL binary COPY format starts with this signature.
+     */
+    private static final byte[] BINARY_COPY_SIGNATURE = "PGCOPY\n\377\r\n\0".getBytes(StandardCharsets.ISO_8859_1);
+
+    @Autowired
+    private AuthorService authorService;
+    @Autowired
+    private BookService bookService;
+    @Autowired
+    private CatalogExportService exportService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void shouldExportBooksAsCsv() throws Exception {
+        Book book = createBook();
+
+        MvcResult result = mockMvc.perform(get("/catalog/exports/books"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        result.getAsyncResult();
+
+        Assertions.assertEquals("text/csv", result.getResponse().getContentType());
+        Assertions.assertTrue(
+                result.getResponse().getHeader(HttpHeaders.CONTENT_DISPOSITION).contains("books.csv")
+        );
+        List<String> lines = result.getResponse().getContentAsString().lines().toList();
+        Assertions.assertEquals("id,name,author_id,pub_year,page_num,cost,version,updated_at", lines.get(0));
+        Assertions.assertEquals(countRows("books"), lines.size() - 1);
+        Assertions.assertTrue(
+                lines.stream().anyMatch(line -> line.startsWith(
+                        "%d,%s,%d,2024,100,6000,0,".formatted(book.id(), book.name(), book.authorId())
+                )),
+                "no line for book " + book
+        );
+    }
+
+    @Test
+    void shouldExportAuthorsAsGzippedBinaryCopy() throws Exception {
+        createBook();
+
+        MvcResult result = mockMvc.perform(get("/catalog/exports/authors").param("format", "binary"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        result.getAsyncResult();
+
+        Assertions.assertEquals("application/gzip", result.getResponse().getContentType());
+        byte[] binaryCopy = gunzip(new ByteArrayInputStream(result.getResponse().getContentAsByteArray()));
+        Assertions.assertArrayEquals(
+                BINARY_COPY_SIGNATURE,
+                Arrays.copyOf(binaryCopy, BINARY_COPY_SIGNATURE.length)
+        );
+    }
+
+    @Test
+    void shouldRejectUnknownTableAndFormat() throws Exception {
+        mockMvc.perform(get("/catalog/exports/pg_authid"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/catalog/exports/books").param("format", "parquet"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void shouldWriteCompleteSnapshotOfEveryTable(@TempDir Path directory) throws Exception {
+        createBook();
+
+        List<CatalogExportResult> results = new CatalogSnapshotJob(exportService, directory, CatalogExportFormat.BINARY)
+                .takeSnapshot();
+
+        Assertions.assertEquals(
+                List.of(countRows("books"), countRows("authors")),
+                results.stream().map(CatalogExportResult::rows).toList()
+        );
+        try (var snapshots = Files.list(directory)) {
+            Path snapshot = snapshots.findFirst().orElseThrow();
+            try (var files = Files.list(snapshot)) {
+                Assertions.assertEquals(
+                        List.of("authors.pgcopy.gz", "books.pgcopy.gz"),
+                        files.map(file -> file.getFileName().toString()).sorted().toList()
+                );
+            }
+            try (InputStream in = Files.newInputStream(snapshot.resolve("books.pgcopy.gz"))) {
+                byte[] binaryCopy = gunzip(in);
+                Assertions.assertArrayEquals(
+                        BINARY_COPY_SIGNATURE,
+                        Arrays.copyOf(binaryCopy, BINARY_COPY_SIGNATURE.length)
+                );
+            }
+        }
+    }
+
+    @Test
+    void shouldExportAllTablesOfSnapshotFromSameDatabaseSnapshot() {
+        Book book = createBook();
+        JdbcTemplate otherConnection = new JdbcTemplate(new DriverManagerDataSource(
+                POSTGRES_CONTAINER.getJdbcUrl(), POSTGRES_CONTAINER.getUsername(), POSTGRES_CONTAINER.getPassword()
+        ));
+
+        List<Long> exportedRows = exportService.inSingleSnapshot(() -> {
+            long before = exportService.export(CatalogTable.BOOKS, CatalogExportFormat.CSV, OutputStream.nullOutputStream())
+                    .rows();
+            otherConnection.update(
+                    """
+                            INSERT INTO books (id, name, author_id, pub_year, page_num, cost)
+                            VALUES (nextval('books_seq'), ?, ?, 2024, 100, 100)
+                            """,
+                    "concurrent-book" + getRandomInt(),
+                    book.authorId()
+            );
+            long after = exportService.export(CatalogTable.BOOKS, CatalogExportFormat.CSV, OutputStream.nullOutputStream())
+                    .rows();
+            return List.of(before, after);
+        });
+
+        Assertions.assertEquals(exportedRows.get(0), exportedRows.get(1));
+    }
+
+    private long countRows(String table) {
+        return jdbcTemplate.queryForObject("SELECT count(*) FROM " + table, Long.class);
+    }
+
+    private static byte[] gunzip(InputStream in) throws IOException {
+        try (GZIPInputStream gzip = new GZIPInputStream(in)) {
+            return gzip.readAllBytes();
+        }
+    }
+
+    private Book createBook() {
+        Author author = authorService.createAuthor(
+                new Author(null, "export-author" + getRandomInt(), 1900, List.of())
+        );
+        return bookService.createBook(
+                new Book(null, "export-book" + getRandomInt(), author.id(), 2024, 100, 6000)
+        );
+    }
+}
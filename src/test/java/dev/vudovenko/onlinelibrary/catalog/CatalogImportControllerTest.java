@@ -0,0 +1,174 @@
+package dev.vudovenko.onlinelibrary.catalog;
+
+import dev.vudovenko.onlinelibrary.AbstractTest;
+import dev.vudovenko.onlinelibrary.author.Author;
+import dev.vudovenko.onlinelibrary.author.AuthorService;
+import dev.vudovenko.onlinelibrary.book.Book;
+import dev.vudovenko.onlinelibrary.book.BookSearchFilter;
+import dev.vudovenko.onlinelibrary.book.BookService;
+import dev.vudovenko.onlinelibrary.statistics.AuthorBookStats;
+import dev.vudovenko.onlinelibrary.statistics.StatisticsService;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.nio.file.Files;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class CatalogImportControllerTest extends AbstractTest {
+
+    @Autowired
+    private AuthorService authorService;
+    @Autowired
+    private BookService bookService;
+    @Autowired
+    private StatisticsService statisticsService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private CatalogImportReports reports;
+
+    @Test
+    void shouldImportValidRowsAndReportRejectedOnes() throws Exception {
+        Author author = createAuthor();
+        // warm the author's cached search, the import has to invalidate it
+        Assertions.assertEquals(List.of(), searchBooksOfAuthor(author.id()));
+        String csv = """
+                cost,name,authorId,pubYear,pageNum
+                100,first,%1$d,2001,10
+                200,"second, with comma",%1$d,2002,20
+                300,this name is far too long for a book,%1$d,2003,30
+                -1,negative cost,%1$d,2004,40
+                x,not a number,%1$d,2005,50
+                500,unknown author,%2$d,2006,60
+                600,missing column,%1$d,2007
+                700,third,%1$d,2008,80
+                """.formatted(author.id(), Long.MAX_VALUE);
+
+        CatalogImportResult result = importCsv(csv);
+
+        Assertions.assertEquals(8, result.rows());
+        Assertions.assertEquals(3, result.importedRows());
+        Assertions.assertEquals(5, result.rejectedRows());
+        Assertions.assertEquals(
+                List.of("first", "second, with comma", "third"),
+                searchBooksOfAuthor(author.id()).stream().map(Book::name).toList()
+        );
+        Assertions.assertEquals(
+                new AuthorBookStats(author.id(), 3, 1000 / 3.0, 100, 700),
+                statisticsService.getAuthorStats(author.id())
+        );
+
+        String report = mockMvc.perform(get("/catalog/imports/{reportId}/rejected", result.reportId()))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        List<String> reportLines = report.lines().toList();
+        Assertions.assertEquals("row,reason,name,authorId,pubYear,pageNum,cost", reportLines.get(0));
+        Assertions.assertEquals(
+                List.of("3", "4", "5", "7", "6"),
+                reportLines.stream()
+                        .skip(1)
+                        .map(line -> line.substring(0, line.indexOf(',')))
+                        .toList()
+        );
+        Assertions.assertTrue(reportLines.get(1).contains("name: "), reportLines.get(1));
+        Assertions.assertTrue(reportLines.get(2).contains("cost: "), reportLines.get(2));
+        Assertions.assertTrue(reportLines.get(5).contains("author does not exist"), reportLines.get(5));
+    }
+
+    @Test
+    void shouldImportManyRowsInOneStream() throws Exception {
+        Author author = createAuthor();
+        int rows = 20_000;
+        String csv = "name,authorId,pubYear,pageNum,cost\n" + IntStream.range(0, rows)
+                .mapToObj(i -> "book-%d,%d,2000,100,%d".formatted(i, author.id(), i % 1000))
+                .collect(Collectors.joining("\n"));
+        long sequenceBefore = lastBookSequenceValue();
+
+        CatalogImportResult result = importCsv(csv);
+
+        Assertions.assertEquals(rows, result.importedRows());
+        Assertions.assertEquals(0, result.rejectedRows());
+        Assertions.assertEquals(rows, statisticsService.getAuthorStats(author.id()).bookCount());
+        // ids are reserved in blocks of 50, not one nextval per row
+        Assertions.assertTrue(lastBookSequenceValue() - sequenceBefore <= rows + 50);
+        // and do not collide with the blocks Hibernate takes
+        bookService.createBook(new Book(null, "after-import", author.id(), 2000, 100, 1));
+    }
+
+    @Test
+    void shouldRejectUploadWithoutRequiredColumns() throws Exception {
+        mockMvc.perform(
+                        post("/catalog/imports")
+                                .contentType(CatalogController.CSV_VALUE)
+                                .content("name,cost\nbook,100\n")
+                )
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void shouldReturnNotFoundForUnknownReport() throws Exception {
+        mockMvc.perform(get("/catalog/imports/{reportId}/rejected", "00000000-0000-0000-0000-000000000000"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/catalog/imports/{reportId}/rejected", "..%2F..%2Fetc%2Fpasswd"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void shouldDeleteExpiredReportsOnNextImport() throws Exception {
+        Author author = createAuthor();
+        String csv = "name,authorId,pubYear,pageNum,cost\nbook,%d,2000,100,1\n".formatted(author.id());
+        CatalogImportResult expired = importCsv(csv);
+        Files.setLastModifiedTime(
+                reports.find(expired.reportId()),
+                FileTime.from(Instant.now().minus(Duration.ofDays(8)))
+        );
+        CatalogImportResult recent = importCsv(csv);
+
+        mockMvc.perform(get("/catalog/imports/{reportId}/rejected", expired.reportId()))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/catalog/imports/{reportId}/rejected", recent.reportId()))
+                .andExpect(status().isOk());
+    }
+
+    private long lastBookSequenceValue() {
+        return jdbcTemplate.queryForObject("SELECT last_value FROM books_seq", Long.class);
+    }
+
+    private CatalogImportResult importCsv(String csv) throws Exception {
+        String resultJson = mockMvc.perform(
+                        post("/catalog/imports")
+                                .contentType(CatalogController.CSV_VALUE)
+                                .content(csv)
+                )
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        return objectMapper.readValue(resultJson, CatalogImportResult.class);
+    }
+
+    private List<Book> searchBooksOfAuthor(Long authorId) {
+        return bookService.searchAllBooks(
+                new BookSearchFilter(authorId, null, null, null, null, null, null, null, null, 0, 10, null, null)
+        ).books();
+    }
+
+    private Author createAuthor() {
+        return authorService.createAuthor(
+                new Author(null, "import-author" + getRandomInt(), 1900, List.of())
+        );
+    }
+}
@@ -0,0 +1,261 @@
+package dev.vudovenko.onlinelibrary.datasource;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import dev.vudovenko.onlinelibrary.AbstractTest;
+import dev.vudovenko.onlinelibrary.author.Author;
+import dev.vudovenko.onlinelibrary.author.AuthorService;
+import dev.vudovenko.onlinelibrary.book.Book;
+import dev.vudovenko.onlinelibrary.book.BookDto;
+import dev.vudovenko.onlinelibrary.book.BookRepository;
+import dev.vudovenko.onlinelibrary.book.BookService;
+import jakarta.servlet.http.Cookie;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * A second, unreplicated database stands in for the replica: whatever a request
+ * reads from it is missing the writes made on the primary, which tells where a
+ * read was routed. It is not in recovery, so its lag is stubbed to pick the state
+ * of the replica a test needs.
+ */
+class ReplicaRoutingTest extends AbstractTest {
+
+    private static final PostgreSQLContainer<?> REPLICA_CONTAINER
+            = new PostgreSQLContainer<>("postgres:latest")
+            .withDatabaseName("postgres")
+            .withUsername("postgres")
+            .withPassword("root");
+
+    static {
+        REPLICA_CONTAINER.start();
+        Flyway.configure()
+                .dataSource(REPLICA_CONTAINER.getJdbcUrl(), "postgres", "root")
+                .baselineOnMigrate(true)
+                .baselineVersion("0")
+                .load()
+                .migrate();
+    }
+
+    private static final JdbcTemplate REPLICA = new JdbcTemplate(
+            new DriverManagerDataSource(REPLICA_CONTAINER.getJdbcUrl(), "postgres", "root")
+    );
+
+    @Autowired
+    private AuthorService authorService;
+    @Autowired
+    private BookService bookService;
+    @Autowired
+    private BookRepository bookRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @SpyBean
+    private ReplicaLagMonitor replicaLagMonitor;
+
+    @DynamicPropertySource
+    static void replicaProperties(DynamicPropertyRegistry registry) {
+        registry.add("library.datasource.replica.url", REPLICA_CONTAINER::getJdbcUrl);
+        registry.add("library.datasource.read-your-writes-window", () -> "1m");
+    }
+
+    @BeforeEach
+    void replicaIsUpToDate() {
+        replicaLagWillBe(Duration.ZERO);
+    }
+
+    @Test
+    void shouldReadFromReplicaUnlessClientHasJustWritten() throws Exception {
+        Author author = authorService.createAuthor(
+                new Author(null, "replica-author" + getRandomInt(), 1900, List.of())
+        );
+        BookDto bookDto = new BookDto(null, "replica-book" + getRandomInt(), author.id(), 2024, 100, 500);
+
+        MvcResult createResult = mockMvc
+                .perform(
+                        post("/books")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(bookDto))
+                )
+                .andExpect(status().is(201))
+                .andReturn();
+        Cookie readYourWritesCookie = createResult.getResponse().getCookie(ReadYourWritesFilter.COOKIE_NAME);
+        Assertions.assertNotNull(readYourWritesCookie);
+
+        Assertions.assertTrue(searchBooksOfAuthor(author.id()).isEmpty());
+        Assertions.assertEquals(
+                List.of(bookDto.name()),
+                searchBooksOfAuthor(author.id(), readYourWritesCookie)
+                        .stream()
+                        .map(BookDto::name)
+                        .toList()
+        );
+    }
+
+    @Test
+    void shouldReadFromPrimaryAfterReadYourWritesWindowExpired() throws Exception {
+        Author author = authorService.createAuthor(
+                new Author(null, "replica-author" + getRandomInt(), 1900, List.of())
+        );
+        bookService.createBook(new Book(null, "replica-book" + getRandomInt(), author.id(), 2024, 100, 500));
+        Cookie expiredCookie = new Cookie(
+                ReadYourWritesFilter.COOKIE_NAME,
+                Long.toString(System.currentTimeMillis() - 1)
+        );
+
+        Assertions.assertTrue(searchBooksOfAuthor(author.id(), expiredCookie).isEmpty());
+    }
+
+    @Test
+    void shouldReadFromPrimaryWhileReplicaIsTooFarBehind() throws Exception {
+        Author author = authorService.createAuthor(
+                new Author(null, "replica-author" + getRandomInt(), 1900, List.of())
+        );
+        Book book = bookService.createBook(
+                new Book(null, "replica-book" + getRandomInt(), author.id(), 2024, 100, 500)
+        );
+
+        replicaLagWillBe(Duration.ofMinutes(1));
+
+        Assertions.assertFalse(replicaLagMonitor.isReplicaUsable());
+        Assertions.assertEquals(
+                List.of(book.name()),
+                searchBooksOfAuthor(author.id())
+                        .stream()
+                        .map(BookDto::name)
+                        .toList()
+        );
+    }
+
+    @Test
+    void shouldNotUseServerThatIsNotInRecovery() {
+        Mockito.doCallRealMethod().when(replicaLagMonitor).measureLag();
+
+        replicaLagMonitor.checkLag();
+
+        Assertions.assertFalse(replicaLagMonitor.isReplicaUsable());
+    }
+
+    @Test
+    void shouldLoadCachedBookFromPrimaryWhenReplicaIsStale() throws Exception {
+        Author author = authorService.createAuthor(
+                new Author(null, "replica-author" + getRandomInt(), 1900, List.of())
+        );
+        Book book = bookService.createBook(
+                new Book(null, "replica-book" + getRandomInt(), author.id(), 2024, 100, 500)
+        );
+        copyToReplica(author, book);
+        bookService.updateBook(
+                book.id(),
+                new Book(null, "updated-" + book.name(), author.id(), 2024, 100, 500)
+        );
+
+        String bookJson = mockMvc.perform(get("/books/{id}", book.id()))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        Assertions.assertEquals(
+                "updated-" + book.name(),
+                objectMapper.readValue(bookJson, BookDto.class).name()
+        );
+    }
+
+    @Test
+    void shouldNotPutWhatIsReadFromReplicaIntoSecondLevelCache() throws Exception {
+        Author author = authorService.createAuthor(
+                new Author(null, "replica-author" + getRandomInt(), 1900, List.of())
+        );
+        Book book = bookService.createBook(
+                new Book(null, "replica-book" + getRandomInt(), author.id(), 2024, 100, 500)
+        );
+        copyToReplica(author, book);
+        String updatedName = "updated-" + book.name();
+        bookService.updateBook(book.id(), new Book(null, updatedName, author.id(), 2024, 100, 500));
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        Cookie readYourWritesCookie = new Cookie(
+                ReadYourWritesFilter.COOKIE_NAME,
+                Long.toString(System.currentTimeMillis() + 60_000)
+        );
+
+        Assertions.assertEquals(List.of(book.name()), bookNames(searchBooksOfAuthor(author.id())));
+        Assertions.assertEquals(
+                book.name(),
+                readOnly.execute(status -> bookRepository.findById(book.id()).orElseThrow().getName())
+        );
+
+        Assertions.assertEquals(
+                List.of(updatedName),
+                bookNames(searchBooksOfAuthor(author.id(), readYourWritesCookie))
+        );
+        Assertions.assertEquals(
+                updatedName,
+                ReadYourWritesContext.readFromPrimary(
+                        () -> bookRepository.findById(book.id()).orElseThrow().getName()
+                )
+        );
+    }
+
+    private void replicaLagWillBe(Duration lag) {
+        Mockito.doReturn(lag).when(replicaLagMonitor).measureLag();
+        replicaLagMonitor.checkLag();
+    }
+
+    /**
+     * Leaves the replica with the book as it was before any later update on the primary.
+     */
+    private static void copyToReplica(Author author, Book book) {
+        REPLICA.update(
+                "INSERT INTO authors (id, name, birth_year) VALUES (?, ?, ?)",
+                author.id(), author.name(), author.birthYear()
+        );
+        REPLICA.update(
+                "INSERT INTO books (id, name, author_id, pub_year, page_num, cost) VALUES (?, ?, ?, ?, ?, ?)",
+                book.id(), book.name(), book.authorId(), book.publicationYear(), book.pageNumber(), book.cost()
+        );
+    }
+
+    private static List<String> bookNames(List<BookDto> books) {
+        return books.stream()
+                .map(BookDto::name)
+                .toList();
+    }
+
+    private List<BookDto> searchBooksOfAuthor(Long authorId, Cookie... cookies) throws Exception {
+        var request = get("/books")
+                .param("authorId", authorId.toString())
+                .param("pageNumber", "0");
+        if (cookies.length > 0) {
+            request.cookie(cookies);
+        }
+        String booksJson = mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        return objectMapper.readValue(booksJson, new TypeReference<>() {
+        });
+    }
+}
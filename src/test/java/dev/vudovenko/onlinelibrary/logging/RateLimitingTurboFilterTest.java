@@ -0,0 +1,80 @@
+package dev.vudovenko.onlinelibrary.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.spi.FilterReply;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+class RateLimitingTurboFilterTest {
+
+    private static final int MAX_EVENTS_PER_SECOND = 5;
+
+    private final LoggerContext loggerContext = new LoggerContext();
+    private final AtomicLong currentTimeMillis = new AtomicLong(1_000_000);
+    private final RateLimitingTurboFilter filter = new RateLimitingTurboFilter(currentTimeMillis::get);
+    private final Logger logger = loggerContext.getLogger("dev.vudovenko.onlinelibrary.web.GlobalExceptionHandler");
+
+    @BeforeEach
+    void startFilter() {
+        filter.setLoggerPrefix("dev.vudovenko.onlinelibrary.web.GlobalExceptionHandler");
+        filter.setLevel("WARN");
+        filter.setMaxEventsPerSecond(MAX_EVENTS_PER_SECOND);
+        filter.start();
+    }
+
+    @Test
+    void shouldDropEventsAboveTheLimitOfASecond() {
+        for (int i = 0; i < MAX_EVENTS_PER_SECOND; i++) {
+            Assertions.assertEquals(FilterReply.NEUTRAL, decide(logger, Level.WARN));
+        }
+        currentTimeMillis.addAndGet(999);
+
+        Assertions.assertEquals(FilterReply.DENY, decide(logger, Level.WARN));
+        Assertions.assertEquals(FilterReply.DENY, decide(logger, Level.INFO));
+    }
+
+    @Test
+    void shouldResetTheLimitEverySecond() {
+        for (int i = 0; i < MAX_EVENTS_PER_SECOND * 2; i++) {
+            decide(logger, Level.WARN);
+        }
+        Assertions.assertEquals(FilterReply.DENY, decide(logger, Level.WARN));
+
+        currentTimeMillis.addAndGet(1000);
+
+        for (int i = 0; i < MAX_EVENTS_PER_SECOND; i++) {
+            Assertions.assertEquals(FilterReply.NEUTRAL, decide(logger, Level.WARN));
+        }
+        Assertions.assertEquals(FilterReply.DENY, decide(logger, Level.WARN));
+    }
+
+    @Test
+    void shouldNeverDropErrors() {
+        for (int i = 0; i < MAX_EVENTS_PER_SECOND * 2; i++) {
+            decide(logger, Level.WARN);
+        }
+
+        for (int i = 0; i < MAX_EVENTS_PER_SECOND * 2; i++) {
+            Assertions.assertEquals(FilterReply.NEUTRAL, decide(logger, Level.ERROR));
+        }
+    }
+
+    @Test
+    void shouldOnlyLimitLoggersUnderThePrefix() {
+        Logger other = loggerContext.getLogger("dev.vudovenko.onlinelibrary.book.BookService");
+
+        for (int i = 0; i < MAX_EVENTS_PER_SECOND * 2; i++) {
+            Assertions.assertEquals(FilterReply.NEUTRAL, decide(other, Level.WARN));
+        }
+        Assertions.assertEquals(FilterReply.NEUTRAL, decide(logger, Level.WARN));
+    }
+
+    private FilterReply decide(Logger logger, Level level) {
+        return filter.decide(null, logger, level, "request failed: {}", new Object[]{"reason"}, null);
+    }
+}
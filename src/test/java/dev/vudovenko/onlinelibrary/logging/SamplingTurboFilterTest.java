@@ -0,0 +1,85 @@
+package dev.vudovenko.onlinelibrary.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.spi.FilterReply;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.IntStream;
+
+class SamplingTurboFilterTest {
+
+    private static final int SAMPLE_RATE = 10;
+
+    private final LoggerContext loggerContext = new LoggerContext();
+    private final SamplingTurboFilter filter = new SamplingTurboFilter();
+
+    @BeforeEach
+    void startFilter() {
+        filter.setLoggerPrefix("dev.vudovenko.onlinelibrary");
+        filter.setLoggerSuffix("Controller");
+        filter.setLevel("INFO");
+        filter.setSampleRate(SAMPLE_RATE);
+        filter.start();
+    }
+
+    @Test
+    void shouldLetThroughOneOfEverySampleRateEvents() {
+        Logger logger = loggerContext.getLogger("dev.vudovenko.onlinelibrary.book.BookController");
+
+        long passed = IntStream.range(0, SAMPLE_RATE * 100)
+                .mapToObj(i -> decide(logger, Level.INFO))
+                .filter(reply -> reply == FilterReply.NEUTRAL)
+                .count();
+
+        Assertions.assertEquals(100, passed);
+        Assertions.assertEquals(FilterReply.NEUTRAL, decide(logger, Level.DEBUG));
+        IntStream.range(1, SAMPLE_RATE)
+                .forEach(i -> Assertions.assertEquals(FilterReply.DENY, decide(logger, Level.DEBUG)));
+    }
+
+    @Test
+    void shouldOnlySampleLoggersMatchingPrefixAndSuffix() {
+        Logger controller = loggerContext.getLogger("dev.vudovenko.onlinelibrary.book.BookController");
+        Logger service = loggerContext.getLogger("dev.vudovenko.onlinelibrary.book.BookService");
+        Logger foreignController = loggerContext.getLogger("org.springframework.web.SomeController");
+
+        decide(controller, Level.INFO);
+
+        for (int i = 0; i < SAMPLE_RATE * 2; i++) {
+            Assertions.assertEquals(FilterReply.NEUTRAL, decide(service, Level.INFO));
+            Assertions.assertEquals(FilterReply.NEUTRAL, decide(foreignController, Level.INFO));
+        }
+        Assertions.assertEquals(FilterReply.DENY, decide(controller, Level.INFO));
+    }
+
+    @Test
+    void shouldNeverDropWarningsAndErrors() {
+        Logger logger = loggerContext.getLogger("dev.vudovenko.onlinelibrary.book.BookController");
+
+        for (int i = 0; i < SAMPLE_RATE * 2; i++) {
+            Assertions.assertEquals(FilterReply.NEUTRAL, decide(logger, Level.WARN));
+            Assertions.assertEquals(FilterReply.NEUTRAL, decide(logger, Level.ERROR));
+        }
+    }
+
+    @Test
+    void shouldNotFilterBeforeStart() {
+        SamplingTurboFilter stopped = new SamplingTurboFilter();
+        Logger logger = loggerContext.getLogger("dev.vudovenko.onlinelibrary.book.BookController");
+
+        for (int i = 0; i < 200; i++) {
+            Assertions.assertEquals(
+                    FilterReply.NEUTRAL,
+                    stopped.decide(null, logger, Level.INFO, "request", null, null)
+            );
+        }
+    }
+
+    private FilterReply decide(Logger logger, Level level) {
+        return filter.decide(null, logger, level, "request {}", new Object[]{1}, null);
+    }
+}
@@ -0,0 +1,32 @@
+package dev.vudovenko.onlinelibrary.metrics;
+
+import dev.vudovenko.onlinelibrary.AbstractTest;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class MetricsEndpointTest extends AbstractTest {
+
+    @Test
+    void shouldExposeHotPathMetrics() throws Exception {
+        mockMvc.perform(get("/books"))
+                .andExpect(status().isOk());
+
+        String metrics = mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        assertThat(metrics)
+                .contains("http_server_requests_seconds_count{")
+                .contains("http_server_serialization_seconds_count{")
+                .contains("spring_data_repository_invocations_seconds_count{")
+                .contains("hikaricp_connections_acquire_seconds_count{")
+                .contains("hibernate_session_statements_count{")
+                .contains("hibernate_statements_total{")
+                .contains("cache_gets_total{");
+    }
+}
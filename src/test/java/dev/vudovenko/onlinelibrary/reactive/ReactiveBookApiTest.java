@@ -0,0 +1,228 @@
+package dev.vudovenko.onlinelibrary.reactive;
+
+import dev.vudovenko.onlinelibrary.AbstractTest;
+import dev.vudovenko.onlinelibrary.author.Author;
+import dev.vudovenko.onlinelibrary.author.AuthorService;
+import dev.vudovenko.onlinelibrary.book.Book;
+import dev.vudovenko.onlinelibrary.book.BookDto;
+import dev.vudovenko.onlinelibrary.book.BookService;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+@ActiveProfiles("reactive")
+class ReactiveBookApiTest extends AbstractTest {
+
+    @Autowired
+    private ReactiveBookServer reactiveBookServer;
+    @Autowired
+    private AuthorService authorService;
+    @Autowired
+    private BookService bookService;
+
+    private WebTestClient webTestClient;
+
+    @DynamicPropertySource
+    static void reactiveProperties(DynamicPropertyRegistry registry) {
+        registry.add(
+                "library.reactive.r2dbc.url",
+                () -> "r2dbc:postgresql://localhost:%d/postgres".formatted(POSTGRES_CONTAINER.getFirstMappedPort())
+        );
+        registry.add("library.reactive.port", () -> 0);
+    }
+
+    @BeforeEach
+    void setUp() {
+        webTestClient = WebTestClient.bindToServer()
+                .baseUrl("http://localhost:" + reactiveBookServer.getPort())
+                .build();
+    }
+
+    @Test
+    void shouldFindBookById() {
+        Book book = createBooks(1).get(0);
+
+        BookDto foundBook = webTestClient.get()
+                .uri("/books/{id}", book.id())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(BookDto.class)
+                .returnResult()
+                .getResponseBody();
+
+        Assertions.assertEquals(
+                new BookDto(book.id(), book.name(), book.authorId(), book.publicationYear(), book.pageNumber(), book.cost()),
+                foundBook
+        );
+    }
+
+    @Test
+    void shouldAnswerConditionalGetLikeServletApi() throws Exception {
+        Book book = createBooks(1).get(0);
+        var servletResponse = mockMvc.perform(get("/books/{id}", book.id()))
+                .andReturn()
+                .getResponse();
+        String eTag = servletResponse.getHeader(HttpHeaders.ETAG);
+        String lastModified = servletResponse.getHeader(HttpHeaders.LAST_MODIFIED);
+
+        webTestClient.get()
+                .uri("/books/{id}", book.id())
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, eTag)
+                .expectHeader().valueEquals(HttpHeaders.LAST_MODIFIED, lastModified);
+        webTestClient.get()
+                .uri("/books/{id}", book.id())
+                .header(HttpHeaders.IF_NONE_MATCH, eTag)
+                .exchange()
+                .expectStatus().isNotModified()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, eTag);
+        webTestClient.get()
+                .uri("/books/{id}", book.id())
+                .header(HttpHeaders.IF_MODIFIED_SINCE, lastModified)
+                .exchange()
+                .expectStatus().isNotModified();
+
+        bookService.updateBook(
+                book.id(),
+                new Book(null, "updated-" + book.name(), book.authorId(), 2000, 100, 100)
+        );
+
+        webTestClient.get()
+                .uri("/books/{id}", book.id())
+                .header(HttpHeaders.IF_NONE_MATCH, eTag)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().value(HttpHeaders.ETAG, newETag -> Assertions.assertNotEquals(eTag, newETag));
+    }
+
+    @Test
+    void shouldReturnNotFoundWhenNotPresent() {
+        webTestClient.get()
+                .uri("/books/{id}", Integer.MAX_VALUE)
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    void shouldSearchWithSameResultsAsServletApi() throws Exception {
+        List<Book> books = createBooks(5);
+        Long authorId = books.get(0).authorId();
+
+        List<BookDto> reactiveBooks = webTestClient.get()
+                .uri("/books?authorId={authorId}&minCost=200&sort=-cost&pageNumber=0&pageSize=10", authorId)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().exists("ETag")
+                .expectBodyList(BookDto.class)
+                .returnResult()
+                .getResponseBody();
+        String servletBooksJson = mockMvc.perform(
+                        get("/books?authorId={authorId}&minCost=200&sort=-cost&pageNumber=0&pageSize=10", authorId)
+                )
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        Assertions.assertEquals(
+                List.of(400, 300, 200),
+                reactiveBooks.stream().map(BookDto::cost).toList()
+        );
+        Assertions.assertEquals(servletBooksJson, objectMapper.writeValueAsString(reactiveBooks));
+    }
+
+    @Test
+    void shouldAnswerUnchangedSearchWithNotModified() throws Exception {
+        List<Book> books = createBooks(3);
+        Book book = books.get(0);
+        String page = "/books?authorId=%d&pageNumber=0".formatted(book.authorId());
+        String eTag = mockMvc.perform(get(page))
+                .andReturn()
+                .getResponse()
+                .getHeader(HttpHeaders.ETAG);
+
+        webTestClient.get()
+                .uri(page)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, eTag);
+        webTestClient.get()
+                .uri(page)
+                .header(HttpHeaders.IF_NONE_MATCH, eTag)
+                .exchange()
+                .expectStatus().isNotModified()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, eTag);
+
+        bookService.updateBook(
+                book.id(),
+                new Book(null, "updated-" + book.name(), book.authorId(), 2000, 100, 100)
+        );
+
+        webTestClient.get()
+                .uri(page)
+                .header(HttpHeaders.IF_NONE_MATCH, eTag)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().value(HttpHeaders.ETAG, newETag -> Assertions.assertNotEquals(eTag, newETag));
+    }
+
+    @Test
+    void shouldWalkAllBooksOfAuthorByCursor() {
+        List<Book> books = createBooks(7);
+        Long authorId = books.get(0).authorId();
+
+        List<Long> walkedIds = new ArrayList<>();
+        String cursor = "";
+        while (cursor != null) {
+            var result = webTestClient.get()
+                    .uri("/books?authorId={authorId}&pageSize=3&cursor={cursor}", authorId, cursor)
+                    .exchange()
+                    .expectStatus().isOk()
+                    .expectBodyList(BookDto.class)
+                    .returnResult();
+            result.getResponseBody().forEach(book -> walkedIds.add(book.id()));
+            cursor = result.getResponseHeaders().getFirst(ReactiveBookHandler.NEXT_CURSOR_HEADER);
+        }
+
+        Assertions.assertEquals(books.stream().map(Book::id).toList(), walkedIds);
+    }
+
+    @Test
+    void shouldReturnBadRequestWhenFilterIsInvalid() {
+        webTestClient.get()
+                .uri("/books?pageSize=1")
+                .exchange()
+                .expectStatus().isBadRequest();
+        webTestClient.get()
+                .uri("/books?sort=unknown")
+                .exchange()
+                .expectStatus().isBadRequest();
+        webTestClient.get()
+                .uri("/books?cursor=&q=war")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    private List<Book> createBooks(int count) {
+        Author author = authorService.createAuthor(
+                new Author(null, "reactive-author" + getRandomInt(), 1900, List.of())
+        );
+        return IntStream.range(0, count)
+                .mapToObj(i -> bookService.createBook(
+                        new Book(null, "reactive-book" + getRandomInt(), author.id(), 2000, 100, i * 100)
+                ))
+                .toList();
+    }
+}
@@ -0,0 +1,222 @@
+package dev.vudovenko.onlinelibrary.statistics;
+
+import dev.vudovenko.onlinelibrary.AbstractTest;
+import dev.vudovenko.onlinelibrary.author.Author;
+import dev.vudovenko.onlinelibrary.author.AuthorService;
+import com.fasterxml.jackson.core.type.TypeReference;
+import dev.vudovenko.onlinelibrary.book.Book;
+import dev.vudovenko.onlinelibrary.book.BookBatchResult;
+import dev.vudovenko.onlinelibrary.book.BookService;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class StatisticsControllerTest extends AbstractTest {
+
+    private static final int CONCURRENT_AUTHORS = 10;
+    private static final int CONCURRENT_BATCHES = 8;
+    // several JDBC batches, so every transaction locks statistics rows in several statements
+    private static final int BOOKS_PER_CONCURRENT_BATCH = 200;
+    private static final int FIRST_CONCURRENT_YEAR = 1801;
+
+    @Autowired
+    private AuthorService authorService;
+    @Autowired
+    private BookService bookService;
+
+    @Test
+    void shouldKeepAuthorStatsUpToDateOnEveryChange() throws Exception {
+        Author author = createAuthor();
+        Book cheapest = createBook(author.id(), 100);
+        createBook(author.id(), 300);
+        Book mostExpensive = createBook(author.id(), 500);
+
+        Assertions.assertEquals(
+                new AuthorBookStats(author.id(), 3, 300.0, 100, 500),
+                getAuthorStats(author.id())
+        );
+
+        bookService.updateBook(
+                mostExpensive.id(),
+                new Book(null, mostExpensive.name(), author.id(), 2000, 100, 200)
+        );
+        bookService.deleteBook(cheapest.id());
+
+        Assertions.assertEquals(
+                new AuthorBookStats(author.id(), 2, 250.0, 200, 300),
+                getAuthorStats(author.id())
+        );
+
+        bookService.createBooks(List.of(
+                new Book(null, "stats-book" + getRandomInt(), author.id(), 2000, 100, 1000),
+                new Book(null, "stats-book" + getRandomInt(), author.id(), 2000, 100, 10)
+        ));
+
+        Assertions.assertEquals(
+                new AuthorBookStats(author.id(), 4, 377.5, 10, 1000),
+                getAuthorStats(author.id())
+        );
+        assertConsistent();
+    }
+
+    @Test
+    void shouldNotDeadlockConcurrentBatchInserts() throws Exception {
+        List<Author> authors = IntStream.range(0, CONCURRENT_AUTHORS)
+                .mapToObj(i -> createAuthor())
+                .toList();
+        List<Integer> years = IntStream.range(0, CONCURRENT_AUTHORS)
+                .mapToObj(i -> FIRST_CONCURRENT_YEAR + i)
+                .toList();
+        Map<Integer, Long> yearCountsBefore = getYearCounts();
+
+        ExecutorService executor = Executors.newFixedThreadPool(CONCURRENT_BATCHES);
+        try {
+            List<Future<List<BookBatchResult>>> batches = new ArrayList<>();
+            for (int batch = 0; batch < CONCURRENT_BATCHES; batch++) {
+                // every batch touches every author and year, each in a different order
+                List<Book> books = new ArrayList<>();
+                for (int i = 0; i < BOOKS_PER_CONCURRENT_BATCH; i++) {
+                    books.add(new Book(
+                            null,
+                            "stats-book" + getRandomInt(),
+                            authors.get(i % CONCURRENT_AUTHORS).id(),
+                            years.get(i / CONCURRENT_AUTHORS % CONCURRENT_AUTHORS),
+                            100,
+                            100 + i
+                    ));
+                }
+                Collections.shuffle(books, new Random(batch));
+                batches.add(executor.submit(() -> bookService.createBooks(books)));
+            }
+            for (Future<List<BookBatchResult>> batch : batches) {
+                Assertions.assertTrue(batch.get().stream().allMatch(result -> result.error() == null));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        Map<Integer, Long> yearCountsAfter = getYearCounts();
+        long booksPerYear = (long) CONCURRENT_BATCHES * BOOKS_PER_CONCURRENT_BATCH / CONCURRENT_AUTHORS;
+        for (Integer year : years) {
+            Assertions.assertEquals(
+                    yearCountsBefore.getOrDefault(year, 0L) + booksPerYear,
+                    yearCountsAfter.get(year),
+                    "year " + year
+            );
+        }
+        for (Author author : authors) {
+            Assertions.assertEquals(
+                    (long) CONCURRENT_BATCHES * BOOKS_PER_CONCURRENT_BATCH / CONCURRENT_AUTHORS,
+                    getAuthorStats(author.id()).bookCount()
+            );
+        }
+        assertConsistent();
+    }
+
+    @Test
+    void shouldListYearStatsInYearOrder() throws Exception {
+        Author author = createAuthor();
+        Map<Integer, Long> yearCountsBefore = getYearCounts();
+
+        bookService.createBooks(List.of(
+                new Book(null, "stats-book" + getRandomInt(), author.id(), 1701, 100, 100),
+                new Book(null, "stats-book" + getRandomInt(), author.id(), 1700, 100, 100),
+                new Book(null, "stats-book" + getRandomInt(), author.id(), 1701, 100, 100)
+        ));
+
+        List<YearBookStats> yearsStats = getYearsStats();
+        Assertions.assertEquals(
+                yearsStats.stream().map(YearBookStats::publicationYear).sorted().toList(),
+                yearsStats.stream().map(YearBookStats::publicationYear).toList()
+        );
+        Map<Integer, Long> yearCountsAfter = getYearCounts();
+        Assertions.assertEquals(yearCountsBefore.getOrDefault(1700, 0L) + 1, yearCountsAfter.get(1700));
+        Assertions.assertEquals(yearCountsBefore.getOrDefault(1701, 0L) + 2, yearCountsAfter.get(1701));
+        assertConsistent();
+    }
+
+    @Test
+    void shouldDropAuthorStatsWhenAuthorIsDeleted() throws Exception {
+        Author author = createAuthor();
+        createBook(author.id(), 100);
+        createBook(author.id(), 200);
+
+        authorService.deleteAuthor(author.id());
+
+        mockMvc.perform(get("/statistics/authors/{id}", author.id()))
+                .andExpect(status().isNotFound());
+        assertConsistent();
+    }
+
+    @Test
+    void shouldReturnEmptyStatsForAuthorWithoutBooks() throws Exception {
+        Author author = createAuthor();
+
+        Assertions.assertEquals(
+                new AuthorBookStats(author.id(), 0, null, null, null),
+                getAuthorStats(author.id())
+        );
+    }
+
+    private AuthorBookStats getAuthorStats(Long authorId) throws Exception {
+        String statsJson = mockMvc.perform(get("/statistics/authors/{id}", authorId))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        return objectMapper.readValue(statsJson, AuthorBookStats.class);
+    }
+
+    private List<YearBookStats> getYearsStats() throws Exception {
+        String statsJson = mockMvc.perform(get("/statistics/years"))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        return objectMapper.readValue(statsJson, new TypeReference<>() {
+        });
+    }
+
+    private Map<Integer, Long> getYearCounts() throws Exception {
+        return getYearsStats()
+                .stream()
+                .collect(Collectors.toMap(YearBookStats::publicationYear, YearBookStats::bookCount));
+    }
+
+    private void assertConsistent() throws Exception {
+        String consistencyJson = mockMvc.perform(get("/actuator/statsconsistency"))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        StatisticsConsistency consistency = objectMapper.readValue(consistencyJson, StatisticsConsistency.class);
+
+        Assertions.assertTrue(consistency.isConsistent(), consistency.toString());
+    }
+
+    private Author createAuthor() {
+        return authorService.createAuthor(
+                new Author(null, "stats-author" + getRandomInt(), 1900, List.of())
+        );
+    }
+
+    private Book createBook(Long authorId, int cost) {
+        return bookService.createBook(
+                new Book(null, "stats-book" + getRandomInt(), authorId, 2000, 100, cost)
+        );
+    }
+}
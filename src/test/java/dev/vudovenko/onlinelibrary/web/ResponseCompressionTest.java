@@ -0,0 +1,98 @@
+package dev.vudovenko.onlinelibrary.web;
+
+import dev.vudovenko.onlinelibrary.AbstractTest;
+import dev.vudovenko.onlinelibrary.author.Author;
+import dev.vudovenko.onlinelibrary.author.AuthorService;
+import dev.vudovenko.onlinelibrary.book.Book;
+import dev.vudovenko.onlinelibrary.book.BookService;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Compression is applied by Tomcat, which MockMvc does not run, so these requests go
+ * to the real server.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class ResponseCompressionTest extends AbstractTest {
+
+    private static final int AUTHORS = 40;
+    private static final int BOOKS_PER_AUTHOR = 3;
+
+    @LocalServerPort
+    private int port;
+    @Autowired
+    private AuthorService authorService;
+    @Autowired
+    private BookService bookService;
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    @Test
+    void shouldGzipBookAndAuthorPagesInEveryFormat() throws Exception {
+        createAuthorsWithBooks();
+        String booksPage = "/books?pageNumber=0&pageSize=100";
+        String authorsPage = "/authors?pageNumber=0&pageSize=100";
+
+        for (String path : List.of(booksPage, authorsPage)) {
+            for (String accept : List.of(MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE)) {
+                HttpResponse<byte[]> response = send(path, accept, null);
+
+                Assertions.assertEquals(200, response.statusCode(), path);
+                Assertions.assertEquals(
+                        "gzip",
+                        response.headers().firstValue(HttpHeaders.CONTENT_ENCODING).orElse(null),
+                        path + " as " + accept
+                );
+                List<String> vary = response.headers().allValues(HttpHeaders.VARY)
+                        .stream()
+                        .flatMap(value -> Arrays.stream(value.split(",")))
+                        .map(String::trim)
+                        .toList();
+                Assertions.assertTrue(vary.contains(HttpHeaders.ACCEPT), path + " " + vary);
+
+                String eTag = response.headers().firstValue(HttpHeaders.ETAG).orElseThrow();
+                Assertions.assertTrue(eTag.startsWith("W/\""), eTag);
+                Assertions.assertEquals(304, send(path, accept, eTag).statusCode(), path);
+            }
+        }
+    }
+
+    private HttpResponse<byte[]> send(String path, String accept, String ifNoneMatch) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .header(HttpHeaders.ACCEPT, accept)
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip");
+        if (ifNoneMatch != null) {
+            request.header(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        return httpClient.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    /**
+     * Enough authors and books that both pages are above the minimum response size.
+     */
+    private void createAuthorsWithBooks() {
+        for (int i = 0; i < AUTHORS; i++) {
+            Author author = authorService.createAuthor(
+                    new Author(null, "gzip-author" + getRandomInt(), 1900, List.of())
+            );
+            bookService.createBooks(
+                    IntStream.range(0, BOOKS_PER_AUTHOR)
+                            .mapToObj(j -> new Book(null, "gzip-book" + getRandomInt(), author.id(), 2024, 100, 6000))
+                            .toList()
+            );
+        }
+    }
+}